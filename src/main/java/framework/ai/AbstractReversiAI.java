@@ -1,7 +1,9 @@
 package framework.ai;
 
+import framework.boardgame.GamePool;
 import framework.boardgame.Position;
 import reversi.Reversi;
+import reversi.ReversiBitboard;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -61,21 +63,27 @@ public abstract class AbstractReversiAI {
     }
 
     /**
-     * Creates a deep copy of the Reversi game state.
-     *
-     * @param game The game to copy
-     * @return A new Reversi instance with the same board state
+     * Reusable games for searching, so a search never touches the game the UI is showing.
+     * Acquire one with the snapshot of the position to search and release it when done.
      */
-    protected static Reversi copyGame(Reversi game) {
-        Reversi copy = new Reversi();
-        char[] sourceBoard = game.getBord();
-        char[] destBoard = copy.getBord();
+    protected static final GamePool<Reversi> SEARCH_GAMES = new GamePool<>(Reversi::new, 8);
 
-        for (int i = 0; i < sourceBoard.length; i++) {
-            destBoard[i] = sourceBoard[i];
-        }
+    // Logging and statistics of the last search
+    protected boolean verbose = true;
+    protected long lastNodeCount;
 
-        return copy;
+    /**
+     * Turns the log of every move on standard output on or off (off for headless matches).
+     */
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    /**
+     * Gets the work done by the last search: positions visited for minimax, simulations for MCTS.
+     */
+    public long getLastNodeCount() {
+        return lastNodeCount;
     }
 
     /**
@@ -86,13 +94,11 @@ public abstract class AbstractReversiAI {
      * @return List of valid Position objects
      */
     protected static List<Position> getValidMovesAsPositions(Reversi game, char player) {
-        List<Position> moves = new ArrayList<>();
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            for (int col = 0; col < BOARD_SIZE; col++) {
-                if (game.isValidMove(row, col, player)) {
-                    moves.add(new Position(row, col, BOARD_SIZE));
-                }
-            }
+        long legal = ReversiBitboard.legalMoves(ReversiBitboard.fromBoard(game.getBord(), player),
+                ReversiBitboard.fromBoard(game.getBord(), getOpponent(player)));
+        List<Position> moves = new ArrayList<>(Long.bitCount(legal));
+        for (; legal != 0; legal &= legal - 1) {
+            moves.add(Position.of(Long.numberOfTrailingZeros(legal), BOARD_SIZE));
         }
         return moves;
     }
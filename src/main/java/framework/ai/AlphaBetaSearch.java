@@ -0,0 +1,308 @@
+package framework.ai;
+
+import framework.boardgame.AbstractBoardGame;
+
+import java.util.List;
+
+/**
+ * Herbruikbare zoekmachine voor elk bordspel dat AbstractBoardGame uitbreidt
+ * Negamax met alpha-beta, iterative deepening tot een maximale diepte of een tijdslimiet,
+ * een transpositietabel op basis van positionHash() en instelbare evaluatie en zetvolgorde
+ *
+ * Het spel moet isLegalMove/getLegalMoves, doMove(int, char), isWin en isDraw goed implementeren.
+ * Als een speler geen geldige zet heeft maar de ander wel, wordt er gepast (dat kost één ply).
+ * Zetten worden teruggedraaid met undo() uit de zetgeschiedenis van het spel (alleen de gewijzigde vakjes).
+ */
+public class AlphaBetaSearch {
+    private static final int WIN_SCORE = 1_000_000;        // Winst na n ply geeft WIN_SCORE - n
+    private static final int MAX_PLY = 1000;
+    private static final int DEFAULT_DEPTH = 6;
+    private static final int DEFAULT_TABLE_SIZE = 1 << 20;
+    private static final int PASS = -1;
+
+    private final BoardEvaluator evaluator;
+    private MoveOrdering moveOrdering = null;
+    private int maxDepth = DEFAULT_DEPTH;
+    private TranspositionTable table = new TranspositionTable(DEFAULT_TABLE_SIZE);
+    private long timeLimitMillis = 0;
+    private long startTime;
+    private boolean aborted;
+
+    // Statistieken van de laatste zoektocht
+    private long nodes;
+    private int lastScore;
+    private int completedDepth;
+
+    /**
+     * Maakt een zoekmachine zonder heuristiek: alleen winst, verlies en gelijkspel tellen
+     * Geschikt voor kleine spellen die tot het einde doorzocht kunnen worden
+     */
+    public AlphaBetaSearch() {
+        this((game, player) -> 0);
+    }
+
+    /**
+     * @param evaluator De evaluatie voor posities op de maximale diepte
+     */
+    public AlphaBetaSearch(BoardEvaluator evaluator) {
+        this.evaluator = evaluator;
+    }
+
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = Math.max(1, maxDepth);
+    }
+
+    public void setMoveOrdering(MoveOrdering moveOrdering) {
+        this.moveOrdering = moveOrdering;
+    }
+
+    /**
+     * Stelt de grootte van de transpositietabel in (0 zet de tabel uit)
+     * @param entries Aantal entries, ongeveer 24 bytes per entry
+     */
+    public void setTranspositionTableSize(int entries) {
+        this.table = entries > 0 ? new TranspositionTable(entries) : null;
+    }
+
+    /**
+     * Stelt een tijdslimiet per zet in (bijvoorbeeld van een TimeManager)
+     * Er wordt dan verdiept tot de tijd op is of maxDepth bereikt is; een iteratie die niet op tijd af is
+     * telt niet mee. Diepte 1 wordt altijd afgemaakt. Een onderbroken zoekthread stopt op dezelfde manier.
+     * @param millis De limiet in milliseconden (0 = geen limiet, alleen maxDepth)
+     */
+    public void setTimeLimit(long millis) {
+        this.timeLimitMillis = Math.max(0, millis);
+    }
+
+    /**
+     * Vindt de beste zet voor een speler
+     * @param game Het bordspel; het bord is na afloop weer hetzelfde
+     * @param player De speler die aan de beurt is
+     * @param opponent De tegenstander
+     * @return De positie van de beste zet, of -1 als de speler geen geldige zet heeft
+     */
+    public int findBestMove(AbstractBoardGame game, char player, char opponent) {
+        startTime = System.nanoTime();
+        nodes = 0;
+        completedDepth = 0;
+        aborted = false;
+        List<Integer> moves = game.getLegalMoves(player);
+        if (moves.isEmpty()) {
+            return -1;
+        }
+        if (table != null) {
+            table.nextGeneration();
+            game.rehash();
+        }
+
+        int bestMove = moves.get(0);
+        // Iterative deepening: elke iteratie vult de tabel met betere zetvolgordes voor de volgende
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            int move = searchRoot(game, moves, depth, player, opponent);
+            if (aborted) {
+                break; // Tijd op tijdens deze iteratie: de vorige iteratie geldt
+            }
+            bestMove = move;
+            completedDepth = depth;
+            if (WIN_SCORE - Math.abs(lastScore) <= depth) {
+                // Uitslag binnen de zoekdiepte: een snellere winst zou ook gevonden zijn
+                // (een winst uit de tabel kan verder weg liggen, dan wordt er dieper gezocht)
+                break;
+            }
+            if (timeLimitMillis > 0 && elapsedMillis() * 2 >= timeLimitMillis) {
+                break; // De volgende iteratie duurt meestal langer dan alle vorige samen
+            }
+        }
+        return bestMove;
+    }
+
+    /**
+     * Zoekt alle zetten van de wortel op een vaste diepte
+     * @return De beste zet; lastScore bevat de bijbehorende score
+     */
+    private int searchRoot(AbstractBoardGame game, List<Integer> moves, int depth, char player, char opponent) {
+        orderMoves(game, moves, player, hashMove(game, player));
+        int alpha = -WIN_SCORE - 1;
+        int bestMove = moves.get(0);
+        for (int move : moves) {
+            game.doMove(move, player);
+            int score = -negamax(game, depth - 1, 1, -WIN_SCORE - 1, -alpha, opponent, player);
+            game.undo();
+            if (aborted) {
+                return bestMove;
+            }
+            if (score > alpha) {
+                alpha = score;
+                bestMove = move;
+            }
+        }
+        lastScore = alpha;
+        store(game, player, alpha, depth, TranspositionTable.EXACT, bestMove, 0);
+        return bestMove;
+    }
+
+    /**
+     * Negamax met alpha-beta
+     * @param ply Afstand tot de wortel, zodat snellere winst beter scoort
+     * @return De score voor de speler die aan de beurt is
+     */
+    private int negamax(AbstractBoardGame game, int depth, int ply, int alpha, int beta, char player, char opponent) {
+        nodes++;
+        if ((nodes & 1023) == 0 && completedDepth > 0 && isOutOfTime()) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0; // Wordt niet gebruikt: de hele iteratie vervalt
+        }
+        if (game.isWin(player)) {
+            return WIN_SCORE - ply;
+        }
+        if (game.isWin(opponent)) {
+            return -(WIN_SCORE - ply);
+        }
+        if (game.isDraw()) {
+            return 0;
+        }
+        if (depth <= 0) {
+            return evaluator.evaluate(game, player);
+        }
+
+        // Transpositietabel: direct antwoord als de opgeslagen grens al genoeg is
+        int hashMove = PASS;
+        long key = 0L;
+        if (table != null) {
+            key = key(game, player);
+            int entry = table.find(key);
+            if (entry >= 0) {
+                hashMove = table.getMove(entry);
+                if (table.getDepth(entry) >= depth) {
+                    int score = fromTable(table.getScore(entry), ply);
+                    byte flag = table.getFlag(entry);
+                    if (flag == TranspositionTable.EXACT
+                            || (flag == TranspositionTable.LOWER_BOUND && score >= beta)
+                            || (flag == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                        return score;
+                    }
+                }
+            }
+        }
+
+        List<Integer> moves = game.getLegalMoves(player);
+        if (moves.isEmpty()) {
+            if (game.getLegalMoves(opponent).isEmpty()) {
+                return evaluator.evaluate(game, player); // Niemand kan zetten, maar het spel meldt geen einde
+            }
+            return -negamax(game, depth - 1, ply + 1, -beta, -alpha, opponent, player); // Passen
+        }
+        orderMoves(game, moves, player, hashMove);
+
+        int originalAlpha = alpha;
+        int best = -WIN_SCORE - 1;
+        int bestMove = moves.get(0);
+        for (int move : moves) {
+            game.doMove(move, player);
+            int score = -negamax(game, depth - 1, ply + 1, -beta, -alpha, opponent, player);
+            game.undo();
+            if (aborted) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break; // Beta afkapping
+                    }
+                }
+            }
+        }
+
+        if (table != null) {
+            byte flag = best <= originalAlpha ? TranspositionTable.UPPER_BOUND
+                    : best >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+            table.store(key, toTable(best, ply), depth, flag, bestMove);
+        }
+        return best;
+    }
+
+    private boolean isOutOfTime() {
+        return (timeLimitMillis > 0 && elapsedMillis() >= timeLimitMillis) || Thread.currentThread().isInterrupted();
+    }
+
+    private long elapsedMillis() {
+        return (System.nanoTime() - startTime) / 1_000_000;
+    }
+
+    /**
+     * Sorteert de zetten: eerst de zet uit de transpositietabel, dan op de score van de zetvolgorde
+     */
+    private void orderMoves(AbstractBoardGame game, List<Integer> moves, char player, int hashMove) {
+        if (moveOrdering != null && moves.size() > 1) {
+            moves.sort((a, b) -> Integer.compare(moveOrdering.score(game, b, player),
+                    moveOrdering.score(game, a, player)));
+        }
+        if (hashMove != PASS) {
+            int index = moves.indexOf(hashMove);
+            if (index > 0) {
+                moves.add(0, moves.remove(index));
+            }
+        }
+    }
+
+    private int hashMove(AbstractBoardGame game, char player) {
+        if (table == null) {
+            return PASS;
+        }
+        int entry = table.find(key(game, player));
+        return entry >= 0 ? table.getMove(entry) : PASS;
+    }
+
+    private void store(AbstractBoardGame game, char player, int score, int depth, byte flag, int move, int ply) {
+        if (table != null) {
+            table.store(key(game, player), toTable(score, ply), depth, flag, move);
+        }
+    }
+
+    /**
+     * Hash van de positie plus de speler die aan de beurt is
+     */
+    private static long key(AbstractBoardGame game, char player) {
+        long key = game.positionHash() ^ (player * 0xD6E8FEB86659FD93L);
+        return key == 0 ? 1 : key;
+    }
+
+    // Winstscores worden in de tabel opgeslagen relatief aan de positie, niet aan de wortel
+    private static int toTable(int score, int ply) {
+        if (score >= WIN_SCORE - MAX_PLY) return score + ply;
+        if (score <= -(WIN_SCORE - MAX_PLY)) return score - ply;
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= WIN_SCORE - MAX_PLY) return score - ply;
+        if (score <= -(WIN_SCORE - MAX_PLY)) return score + ply;
+        return score;
+    }
+
+    /**
+     * Krijg het aantal doorzochte knopen van de laatste zoektocht
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Krijg de score van de beste zet van de laatste zoektocht (voor de speler die zette)
+     */
+    public int getLastScore() {
+        return lastScore;
+    }
+
+    /**
+     * Krijg de diepte van de laatste volledig afgemaakte iteratie
+     */
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+}
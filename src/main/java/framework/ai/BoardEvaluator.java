@@ -0,0 +1,20 @@
+package framework.ai;
+
+import framework.boardgame.AbstractBoardGame;
+
+/**
+ * Heuristische evaluatie van een bordpositie voor AlphaBetaSearch
+ * Wordt gebruikt als de zoekdiepte op is en het spel nog niet afgelopen is
+ */
+@FunctionalInterface
+public interface BoardEvaluator {
+
+    /**
+     * Evalueert de positie voor een speler
+     * De score moet symmetrisch zijn: evaluate(game, a) == -evaluate(game, b)
+     * @param game Het bordspel
+     * @param player De speler voor wie de score geldt (de speler die aan de beurt is)
+     * @return De score, hoger is beter voor de speler
+     */
+    int evaluate(AbstractBoardGame game, char player);
+}
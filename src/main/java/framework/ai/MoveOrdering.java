@@ -0,0 +1,20 @@
+package framework.ai;
+
+import framework.boardgame.AbstractBoardGame;
+
+/**
+ * Geeft zetten een snelle score, zodat AlphaBetaSearch de beste zetten eerst probeert
+ * Een goede volgorde zorgt voor meer alpha-beta afkappingen
+ */
+@FunctionalInterface
+public interface MoveOrdering {
+
+    /**
+     * Schat hoe goed een zet is, zonder de zet te zoeken
+     * @param game Het bordspel (voor de zet)
+     * @param move De positie van de zet
+     * @param player De speler die de zet doet
+     * @return De score, hogere scores worden eerst gezocht
+     */
+    int score(AbstractBoardGame game, int move, char player);
+}
@@ -0,0 +1,94 @@
+package framework.ai;
+
+import framework.boardgame.AbstractBoardGame;
+import framework.boardgame.GameClock;
+
+/**
+ * Verdeelt de bedenktijd van een {@link GameClock} over de zetten
+ * Het budget voor een zet is de resterende tijd gedeeld door het verwachte aantal eigen zetten
+ * (plus een reserve), plus het grootste deel van de increment. Dat wordt geschaald naar de fase
+ * van het spel (het middenspel krijgt meer, opening en eindspel minder) en naar de complexiteit
+ * van de positie (meer geldige zetten dan gemiddeld krijgt meer tijd). Een gedwongen zet krijgt
+ * bijna niets.
+ *
+ * Het budget is bedoeld voor de tijdslimiet van een zoekalgoritme
+ * ({@link AlphaBetaSearch#setTimeLimit(long)}, de tijdslimiet van MCTS). De harde limiet
+ * ({@link #hardLimit(long, long)}) is een vangnet voor algoritmes die hun budget niet precies halen.
+ */
+public class TimeManager {
+    private static final long SAFETY_MARGIN_MILLIS = 50;   // Voor thread wissels, de EDT en het netwerk
+    private static final long MIN_BUDGET_MILLIS = 10;
+    private static final int RESERVE_MOVES = 2;            // Tijd die bewaard blijft voor onverwacht lange spellen
+    private static final double INCREMENT_SHARE = 0.8;
+
+    private final double averageLegalMoves;
+
+    /**
+     * @param averageLegalMoves Het gemiddelde aantal geldige zetten in dit spel (ongeveer 8 voor Reversi)
+     */
+    public TimeManager(double averageLegalMoves) {
+        this.averageLegalMoves = Math.max(1.0, averageLegalMoves);
+    }
+
+    /**
+     * Bepaalt het budget voor een zet uit de klok en het bord
+     * De fase komt uit het aantal bezette en lege vakjes (elk vakje is ongeveer één zet)
+     * @param clock De klok
+     * @param player De speler die aan zet is
+     * @param game Het spel
+     * @return Het budget in milliseconden
+     */
+    public long allocate(GameClock clock, char player, AbstractBoardGame game) {
+        int empty = 0;
+        for (int i = 0; i < game.getBoardSize(); i++) {
+            if (game.isFree(i)) {
+                empty++;
+            }
+        }
+        int played = game.getBoardSize() - empty;
+        int ownMovesLeft = (empty + 1) / 2;
+        return allocate(clock.getRemaining(player), clock.getIncrementMillis(), played, ownMovesLeft,
+                game.getLegalMoves(player).size());
+    }
+
+    /**
+     * Bepaalt het budget voor een zet
+     * @param remainingMillis De resterende tijd van de speler
+     * @param incrementMillis De increment per zet
+     * @param movesPlayed Het aantal gespeelde zetten (van beide spelers)
+     * @param ownMovesLeft Het verwachte aantal zetten dat de speler nog moet doen
+     * @param legalMoves Het aantal geldige zetten nu
+     * @return Het budget in milliseconden
+     */
+    public long allocate(long remainingMillis, long incrementMillis, int movesPlayed, int ownMovesLeft,
+                         int legalMoves) {
+        long available = remainingMillis - SAFETY_MARGIN_MILLIS;
+        if (available <= MIN_BUDGET_MILLIS || legalMoves <= 1) {
+            return MIN_BUDGET_MILLIS;
+        }
+
+        double base = (double) available / (Math.max(1, ownMovesLeft) + RESERVE_MOVES);
+
+        // Fase: 0 aan het begin, 1 aan het eind; het middenspel weegt het zwaarst (0.7 tot 1.3)
+        double progress = (double) movesPlayed / Math.max(1, movesPlayed + 2 * ownMovesLeft);
+        double phase = 0.7 + 2.4 * progress * (1.0 - progress);
+
+        // Complexiteit: meer keuze dan gemiddeld is moeilijker (0.5 tot 1.5)
+        double complexity = Math.max(0.5, Math.min(1.5, Math.sqrt(legalMoves / averageLegalMoves)));
+
+        long budget = (long) (base * phase * complexity + incrementMillis * INCREMENT_SHARE);
+        // Nooit meer dan de helft van wat er over is in één zet
+        return Math.max(MIN_BUDGET_MILLIS, Math.min(budget, available / 2));
+    }
+
+    /**
+     * Bepaalt een harde limiet voor een zet: ruimer dan het budget, maar de klok valt nooit
+     * @param remainingMillis De resterende tijd van de speler
+     * @param budgetMillis Het budget van {@link #allocate}
+     * @return De harde limiet in milliseconden
+     */
+    public long hardLimit(long remainingMillis, long budgetMillis) {
+        long available = Math.max(MIN_BUDGET_MILLIS, remainingMillis - SAFETY_MARGIN_MILLIS);
+        return Math.max(budgetMillis, Math.min(budgetMillis * 3, available * 3 / 4));
+    }
+}
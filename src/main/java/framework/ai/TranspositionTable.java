@@ -0,0 +1,91 @@
+package framework.ai;
+
+/**
+ * Transpositietabel voor AlphaBetaSearch
+ * Slaat per positie (hash inclusief wie aan de beurt is) de score, de zoekdiepte,
+ * het soort grens en de beste zet op, in parallelle arrays met een vaste grootte
+ */
+final class TranspositionTable {
+    static final byte EXACT = 0;
+    static final byte LOWER_BOUND = 1;   // Score is minstens deze waarde (beta afkapping)
+    static final byte UPPER_BOUND = 2;   // Score is hoogstens deze waarde (geen zet boven alpha)
+
+    private final int mask;
+    private final long[] keys;
+    private final int[] scores;
+    private final byte[] depths;
+    private final byte[] flags;
+    private final short[] moves;
+    private final byte[] generations;
+
+    private byte generation = 0;
+
+    /**
+     * @param capacity Gevraagd aantal entries (naar boven afgerond op een macht van twee)
+     */
+    TranspositionTable(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity));
+        if (size < capacity) {
+            size <<= 1;
+        }
+        mask = size - 1;
+        keys = new long[size];
+        scores = new int[size];
+        depths = new byte[size];
+        flags = new byte[size];
+        moves = new short[size];
+        generations = new byte[size];
+    }
+
+    /**
+     * Start een nieuwe zoektocht; entries van eerdere zoektochten worden eerst vervangen
+     */
+    void nextGeneration() {
+        generation++;
+    }
+
+    /**
+     * Zoekt een positie op
+     * @return De index van de entry, of -1 als de positie er niet in staat
+     */
+    int find(long key) {
+        int index = index(key);
+        return keys[index] == key ? index : -1;
+    }
+
+    /**
+     * Slaat een resultaat op; een diepere entry van dezelfde zoektocht wordt niet overschreven
+     */
+    void store(long key, int score, int depth, byte flag, int move) {
+        int index = index(key);
+        if (keys[index] != key && generations[index] == generation && depths[index] > depth) {
+            return;
+        }
+        keys[index] = key;
+        scores[index] = score;
+        depths[index] = (byte) depth;
+        flags[index] = flag;
+        moves[index] = (short) move;
+        generations[index] = generation;
+    }
+
+    int getScore(int index) {
+        return scores[index];
+    }
+
+    int getDepth(int index) {
+        return depths[index];
+    }
+
+    byte getFlag(int index) {
+        return flags[index];
+    }
+
+    int getMove(int index) {
+        return moves[index];
+    }
+
+    private int index(long key) {
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+}
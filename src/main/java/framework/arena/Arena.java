@@ -0,0 +1,338 @@
+package framework.arena;
+
+import framework.ai.TimeManager;
+import framework.boardgame.AbstractBoardGame;
+import framework.boardgame.GameClock;
+import framework.boardgame.GameResult;
+import framework.controllers.AIMoveProvider;
+import framework.controllers.GameRunner;
+import framework.players.AIPlayer;
+import framework.players.AbstractPlayer;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Arena laat twee engines zonder UI tegen elkaar spelen, parallel op alle cores
+ * Elke opening wordt twee keer gespeeld, met de kleuren omgewisseld, zodat een voordeel van de opening
+ * of van de beginspeler wegvalt. De uitslagen komen in een {@link MatchStatistics} (Elo met
+ * betrouwbaarheidsinterval) en kunnen met een {@link Sprt} vroeg gestopt worden; de snelheid van
+ * elke engine komt in een {@link EngineStatistics}.
+ *
+ * Elke arena thread maakt zijn eigen zoekmachines, dus een engine hoeft niet thread-safe te zijn.
+ * Spellen worden gespeeld met een {@link GameRunner}, op de arena thread zelf.
+ */
+public class Arena<T extends AbstractBoardGame> {
+    private final Supplier<T> gameFactory;
+    private final char firstSymbol;
+    private final char secondSymbol;
+    private final String nameA;
+    private final String nameB;
+    private final EngineFactory<T> engineA;
+    private final EngineFactory<T> engineB;
+    private final MatchStatistics match = new MatchStatistics();
+    private final EngineStatistics statisticsA;
+    private final EngineStatistics statisticsB;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private List<String> openings = new ArrayList<>();      // Leeg = alleen de beginpositie
+    private Sprt sprt;                                      // null = vast aantal spellen
+    private long baseMillis = 0;                            // 0 = geen klok
+    private long incrementMillis = 0;
+    private double averageLegalMoves = 8;
+    private PrintStream progress;
+    private int progressInterval = 100;
+    private volatile boolean stopped = false;
+    private Sprt.Decision decision = Sprt.Decision.CONTINUE;
+    private long elapsedNanos;
+
+    /**
+     * Maakt de zoekmachine van een engine
+     */
+    public interface EngineFactory<T extends AbstractBoardGame> {
+        /**
+         * Maakt een zoekmachine voor één arena thread
+         * @param nodes Krijgt na elke zoekopdracht het werk van die zoekopdracht (voor nodes per seconde)
+         * @return De zoekmachine
+         */
+        AIMoveProvider.Search<T> create(LongConsumer nodes);
+    }
+
+    /**
+     * @param gameFactory Maakt een spel in de beginpositie
+     * @param firstSymbol Het symbool van de speler die in de beginpositie begint
+     * @param secondSymbol Het symbool van de andere speler
+     * @param nameA De naam van engine A
+     * @param engineA Engine A (de uitslagen zijn vanuit A)
+     * @param nameB De naam van engine B
+     * @param engineB Engine B
+     */
+    public Arena(Supplier<T> gameFactory, char firstSymbol, char secondSymbol,
+                 String nameA, EngineFactory<T> engineA, String nameB, EngineFactory<T> engineB) {
+        this.gameFactory = gameFactory;
+        this.firstSymbol = firstSymbol;
+        this.secondSymbol = secondSymbol;
+        this.nameA = nameA;
+        this.nameB = nameB;
+        this.engineA = engineA;
+        this.engineB = engineB;
+        this.statisticsA = new EngineStatistics(nameA);
+        this.statisticsB = new EngineStatistics(nameB);
+    }
+
+    public void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Stel de openingen in, in de notatie van {@link AbstractBoardGame#toNotation(char)}
+     * @param openings De openingen; ongeldige openingen worden overgeslagen
+     * @return Het aantal geldige openingen
+     */
+    public int setOpenings(List<String> openings) {
+        List<String> valid = new ArrayList<>();
+        T game = gameFactory.get();
+        for (String opening : openings) {
+            if (game.parseNotation(opening) != 0) {
+                valid.add(opening);
+            }
+        }
+        this.openings = valid;
+        return valid.size();
+    }
+
+    /**
+     * Stop de match zodra de SPRT een beslissing heeft
+     * @param sprt De test, of null voor een vast aantal spellen
+     */
+    public void setSprt(Sprt sprt) {
+        this.sprt = sprt;
+    }
+
+    /**
+     * Speel met een klok per spel; de engines krijgen hun budget per zet van een TimeManager
+     * @param baseMillis De bedenktijd per speler (0 = geen klok; de engines gebruiken hun eigen instellingen)
+     * @param incrementMillis De increment per zet
+     * @param averageLegalMoves Het gemiddelde aantal geldige zetten in dit spel
+     */
+    public void setTimeControl(long baseMillis, long incrementMillis, double averageLegalMoves) {
+        this.baseMillis = Math.max(0, baseMillis);
+        this.incrementMillis = Math.max(0, incrementMillis);
+        this.averageLegalMoves = averageLegalMoves;
+    }
+
+    /**
+     * Druk de stand af tijdens de match
+     * @param out Waar naartoe (null = niet)
+     * @param interval Om de hoeveel spellen
+     */
+    public void setProgress(PrintStream out, int interval) {
+        this.progress = out;
+        this.progressInterval = Math.max(1, interval);
+    }
+
+    /**
+     * Maakt openingen door vanuit de beginpositie willekeurige geldige zetten te spelen
+     * @param gameFactory Maakt een spel in de beginpositie
+     * @param firstSymbol Het symbool van de speler die begint
+     * @param secondSymbol Het symbool van de andere speler
+     * @param plies Het aantal zetten per opening
+     * @param count Het gewenste aantal (verschillende) openingen
+     * @param seed Het zaadje voor de toevalsgenerator, zodat een match herhaalbaar is
+     * @return De openingen in notatie; minder dan count als er niet zoveel verschillende zijn
+     */
+    public static <G extends AbstractBoardGame> List<String> randomOpenings(Supplier<G> gameFactory, char firstSymbol,
+                                                                          char secondSymbol, int plies, int count,
+                                                                          long seed) {
+        Random random = new Random(seed);
+        Set<String> openings = new LinkedHashSet<>();
+        int attempts = 0;
+        while (openings.size() < count && attempts++ < count * 20) {
+            G game = gameFactory.get();
+            char player = firstSymbol;
+            boolean complete = true;
+            for (int ply = 0; ply < plies; ply++) {
+                List<Integer> moves = game.getLegalMoves(player);
+                if (moves.isEmpty() || game.isGameOver()) {
+                    complete = false;
+                    break;
+                }
+                game.doMove(moves.get(random.nextInt(moves.size())), player);
+                player = (player == firstSymbol) ? secondSymbol : firstSymbol;
+            }
+            if (complete && !game.isGameOver()) {
+                openings.add(game.toNotation(player));
+            }
+        }
+        return new ArrayList<>(openings);
+    }
+
+    /**
+     * Speelt de match; blokkeert tot alle spellen gespeeld zijn of de SPRT beslist
+     * @param games Het maximale aantal spellen (afgerond naar boven op een even aantal)
+     * @return De uitslagen, vanuit engine A
+     */
+    public MatchStatistics run(int games) {
+        int total = games + (games % 2);
+        AtomicInteger nextGame = new AtomicInteger();
+        long start = System.nanoTime();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "arena-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Callable<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            workers.add(() -> {
+                new Worker().play(nextGame, total);
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> worker : pool.invokeAll(workers)) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            stopped = true;
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            stopped = true;
+            if (progress != null) {
+                progress.println("Arena stopped: " + e.getCause());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        elapsedNanos = System.nanoTime() - start;
+        return match;
+    }
+
+    /**
+     * De zoekmachines en spelers van één arena thread
+     */
+    private class Worker {
+        private final long[] lastNodes = new long[2];      // Werk van de laatste zoekopdracht van A en B
+        private final AIMoveProvider<T> providerA = new AIMoveProvider<>(gameFactory,
+                engineA.create(nodes -> lastNodes[0] = nodes));
+        private final AIMoveProvider<T> providerB = new AIMoveProvider<>(gameFactory,
+                engineB.create(nodes -> lastNodes[1] = nodes));
+
+        void play(AtomicInteger nextGame, int total) {
+            int index;
+            while (!stopped && (index = nextGame.getAndIncrement()) < total) {
+                playGame(index);
+            }
+        }
+
+        /**
+         * Speelt één spel; even spellen begint A met het eerste symbool, oneven spellen B
+         */
+        private void playGame(int index) {
+            T game = gameFactory.get();
+            char toMove = firstSymbol;
+            if (!openings.isEmpty()) {
+                toMove = game.parseNotation(openings.get((index / 2) % openings.size()));
+            }
+
+            boolean aFirst = index % 2 == 0;
+            char symbolA = aFirst ? firstSymbol : secondSymbol;
+            AbstractPlayer playerA = new AIPlayer(nameA, symbolA);
+            AbstractPlayer playerB = new AIPlayer(nameB, aFirst ? secondSymbol : firstSymbol);
+            GameRunner<T> runner = aFirst
+                    ? new GameRunner<>(game, playerA, providerA, playerB, providerB)
+                    : new GameRunner<>(game, playerB, providerB, playerA, providerA);
+            runner.setCurrentPlayer(toMove);
+
+            GameClock clock = null;
+            if (baseMillis > 0) {
+                clock = new GameClock(firstSymbol, secondSymbol, baseMillis, incrementMillis);
+                TimeManager timeManager = new TimeManager(averageLegalMoves);
+                runner.setClock(clock);
+                providerA.setClock(clock, timeManager);
+                providerB.setClock(clock, timeManager);
+            }
+
+            runner.setListener(new GameRunner.Listener() {
+                @Override
+                public void onMovePlayed(int move, char player, long thinkNanos) {
+                    int side = player == symbolA ? 0 : 1;
+                    (side == 0 ? statisticsA : statisticsB).addMove(thinkNanos, lastNodes[side]);
+                    lastNodes[side] = 0; // Een gedwongen zet zoekt niet
+                }
+
+                @Override
+                public void onPass(char player) {
+                }
+
+                @Override
+                public void onGameEnded(GameResult result) {
+                }
+            });
+
+            GameResult result = runner.run();
+            if (result == null) {
+                return; // Onderbroken
+            }
+            if (result.getType() == GameResult.ResultType.DRAW) {
+                match.addDraw();
+            } else if (result.getWinner() == playerA) {
+                match.addWin();
+            } else {
+                match.addLoss();
+            }
+            afterGame();
+        }
+    }
+
+    /**
+     * Druk de stand af en test de SPRT na een gespeeld spel
+     */
+    private synchronized void afterGame() {
+        if (progress != null && match.getGames() % progressInterval == 0) {
+            progress.println(match + (sprt != null ? ", " + sprt.describe(match) : ""));
+        }
+        if (sprt != null && !stopped) {
+            decision = sprt.test(match);
+            if (decision != Sprt.Decision.CONTINUE) {
+                stopped = true; // Lopende spellen worden nog afgemaakt en tellen mee
+            }
+        }
+    }
+
+    /**
+     * Druk het verslag van de match af
+     * @param out Waar naartoe
+     */
+    public void printReport(PrintStream out) {
+        double seconds = elapsedNanos / 1e9;
+        out.println("=== ARENA: " + nameA + " vs " + nameB + " ===");
+        out.println("  " + threads + " threads, " + (openings.isEmpty() ? "start position" : openings.size() + " openings")
+                + (baseMillis > 0 ? ", time control " + baseMillis + "+" + incrementMillis + " ms" : ""));
+        out.println("  " + match);
+        if (sprt != null) {
+            out.println("  " + sprt + ": " + sprt.describe(match));
+        }
+        out.println("  " + statisticsA);
+        out.println("  " + statisticsB);
+        out.println(String.format("  %.1f s, %.2f games/s", seconds, seconds > 0 ? match.getGames() / seconds : 0));
+        out.println("==================");
+    }
+
+    public MatchStatistics getMatchStatistics() { return match; }
+    public EngineStatistics getStatisticsA() { return statisticsA; }
+    public EngineStatistics getStatisticsB() { return statisticsB; }
+    public Sprt.Decision getDecision() { return decision; }
+}
@@ -0,0 +1,85 @@
+package framework.arena;
+
+import java.util.Arrays;
+
+/**
+ * Snelheid van één engine over een match: nodes per seconde en de verdeling van de tijd per zet
+ * Zetten kunnen vanuit meerdere threads toegevoegd worden.
+ */
+public class EngineStatistics {
+    private final String name;
+    private long[] moveNanos = new long[1024];
+    private int moves = 0;
+    private long totalNanos = 0;
+    private long nodes = 0;
+
+    /**
+     * @param name De naam van de engine
+     */
+    public EngineStatistics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Voegt een gespeelde zet toe
+     * @param nanos De bedenktijd
+     * @param searchNodes Het werk van de zoekopdracht (0 bij een gedwongen zet)
+     */
+    public synchronized void addMove(long nanos, long searchNodes) {
+        if (moves == moveNanos.length) {
+            moveNanos = Arrays.copyOf(moveNanos, moves * 2);
+        }
+        moveNanos[moves++] = nanos;
+        totalNanos += nanos;
+        nodes += searchNodes;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized int getMoves() {
+        return moves;
+    }
+
+    public synchronized long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Krijg het aantal nodes per seconde bedenktijd
+     */
+    public synchronized double getNodesPerSecond() {
+        return totalNanos == 0 ? 0 : nodes * 1e9 / totalNanos;
+    }
+
+    /**
+     * Krijg de gemiddelde tijd per zet
+     * @return De tijd in milliseconden
+     */
+    public synchronized double getMeanMillis() {
+        return moves == 0 ? 0 : totalNanos / 1e6 / moves;
+    }
+
+    /**
+     * Krijg een percentiel van de tijd per zet
+     * @param percentile Het percentiel (0 tot 100; 50 is de mediaan, 100 het maximum)
+     * @return De tijd in milliseconden
+     */
+    public synchronized double getPercentileMillis(double percentile) {
+        if (moves == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(moveNanos, moves);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(Math.max(0, Math.min(100, percentile)) / 100 * moves) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%s: %d moves, %.0f nodes/s, ms/move mean %.1f median %.1f p90 %.1f p99 %.1f max %.1f",
+                name, moves, getNodesPerSecond(), getMeanMillis(), getPercentileMillis(50),
+                getPercentileMillis(90), getPercentileMillis(99), getPercentileMillis(100));
+    }
+}
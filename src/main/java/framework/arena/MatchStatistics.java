@@ -0,0 +1,133 @@
+package framework.arena;
+
+/**
+ * Uitslagen van een match tussen speler A en speler B, gezien vanuit A
+ * Geeft de score, het Elo verschil met een betrouwbaarheidsinterval en de log-likelihood ratio voor
+ * een {@link Sprt}. Alle berekeningen gebruiken de normale benadering van de gemiddelde score per spel
+ * (winst 1, remise 0.5, verlies 0), zoals gebruikelijk bij het testen van engines.
+ * Uitslagen kunnen vanuit meerdere threads toegevoegd worden.
+ */
+public class MatchStatistics {
+    private static final double Z_95 = 1.959964;        // 95% van de normale verdeling
+    private static final double MIN_SCORE = 0.001;      // Begrenzing, anders is het Elo verschil oneindig
+
+    private int wins = 0;
+    private int draws = 0;
+    private int losses = 0;
+
+    public synchronized void addWin() {
+        wins++;
+    }
+
+    public synchronized void addDraw() {
+        draws++;
+    }
+
+    public synchronized void addLoss() {
+        losses++;
+    }
+
+    public synchronized int getGames() {
+        return wins + draws + losses;
+    }
+
+    public synchronized int getWins() {
+        return wins;
+    }
+
+    public synchronized int getDraws() {
+        return draws;
+    }
+
+    public synchronized int getLosses() {
+        return losses;
+    }
+
+    /**
+     * Krijg de gemiddelde score van A
+     * @return De score tussen 0 en 1 (0.5 zonder spellen)
+     */
+    public synchronized double getScore() {
+        int games = getGames();
+        return games == 0 ? 0.5 : (wins + 0.5 * draws) / games;
+    }
+
+    /**
+     * Krijg de variantie van de score van één spel
+     * Met een halve winst en een half verlies extra (een zwakke prior), zodat de variantie nooit 0 is
+     * als alle spellen dezelfde uitslag hebben; bij veel spellen maakt dat niets uit.
+     */
+    private double getVariance() {
+        double score = getSmoothedScore();
+        double games = getGames() + 1.0;
+        return ((wins + 0.5) * (1 - score) * (1 - score) + draws * (0.5 - score) * (0.5 - score)
+                + (losses + 0.5) * score * score) / games;
+    }
+
+    private double getSmoothedScore() {
+        return (wins + 0.5 + 0.5 * draws) / (getGames() + 1.0);
+    }
+
+    /**
+     * Krijg het Elo verschil van A ten opzichte van B
+     * @return Het verschil; positief als A sterker is
+     */
+    public synchronized double getEloDifference() {
+        return eloFromScore(getScore());
+    }
+
+    /**
+     * Krijg het 95% betrouwbaarheidsinterval van het Elo verschil
+     * @return {ondergrens, bovengrens}
+     */
+    public synchronized double[] getEloConfidenceInterval() {
+        int games = getGames();
+        double score = getScore();
+        double margin = games == 0 ? 0.5 : Z_95 * Math.sqrt(getVariance() / games);
+        return new double[] {eloFromScore(score - margin), eloFromScore(score + margin)};
+    }
+
+    /**
+     * Krijg de log-likelihood ratio van H1 (verschil elo1) tegen H0 (verschil elo0)
+     * @param elo0 Het Elo verschil onder H0
+     * @param elo1 Het Elo verschil onder H1
+     * @return De ratio; 0 zonder spellen
+     */
+    public synchronized double getLogLikelihoodRatio(double elo0, double elo1) {
+        int games = getGames();
+        if (games == 0) {
+            return 0;
+        }
+        double score = getSmoothedScore();
+        double variance = getVariance();
+        double score0 = scoreFromElo(elo0);
+        double score1 = scoreFromElo(elo1);
+        return games * (score1 - score0) * (2 * score - score0 - score1) / (2 * variance);
+    }
+
+    /**
+     * Zet een gemiddelde score om in een Elo verschil
+     * @param score De score (wordt begrensd tot net binnen 0 en 1)
+     * @return Het Elo verschil
+     */
+    public static double eloFromScore(double score) {
+        double clamped = Math.max(MIN_SCORE, Math.min(1 - MIN_SCORE, score));
+        return -400 * Math.log10(1 / clamped - 1);
+    }
+
+    /**
+     * Zet een Elo verschil om in de verwachte score
+     * @param elo Het Elo verschil
+     * @return De verwachte score tussen 0 en 1
+     */
+    public static double scoreFromElo(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+    @Override
+    public synchronized String toString() {
+        double[] interval = getEloConfidenceInterval();
+        return String.format("%d games (+%d =%d -%d), score %.1f%%, Elo %+.1f (95%% CI %+.1f .. %+.1f)",
+                getGames(), wins, draws, losses, getScore() * 100, getEloDifference(), interval[0], interval[1]);
+    }
+}
@@ -0,0 +1,71 @@
+package framework.arena;
+
+/**
+ * Sequential probability ratio test: stop een match zodra duidelijk is of A minstens elo1 sterker is (H1)
+ * of hoogstens elo0 (H0), in plaats van een vast aantal spellen te spelen
+ * Alpha is de kans op een onterechte H1, beta de kans op een onterechte H0.
+ */
+public class Sprt {
+    public enum Decision { CONTINUE, ACCEPT_H0, ACCEPT_H1 }
+
+    private final double elo0;
+    private final double elo1;
+    private final double alpha;
+    private final double beta;
+    private final double lowerBound;
+    private final double upperBound;
+
+    /**
+     * @param elo0 Het Elo verschil onder H0 (bijvoorbeeld 0: geen verbetering)
+     * @param elo1 Het Elo verschil onder H1 (bijvoorbeeld 10: een verbetering)
+     * @param alpha De kans op een onterechte H1 (bijvoorbeeld 0.05)
+     * @param beta De kans op een onterechte H0 (bijvoorbeeld 0.05)
+     */
+    public Sprt(double elo0, double elo1, double alpha, double beta) {
+        this.elo0 = elo0;
+        this.elo1 = elo1;
+        this.alpha = Math.max(1e-6, Math.min(0.5, alpha));
+        this.beta = Math.max(1e-6, Math.min(0.5, beta));
+        this.lowerBound = Math.log(this.beta / (1 - this.alpha));
+        this.upperBound = Math.log((1 - this.beta) / this.alpha);
+    }
+
+    /**
+     * Test de uitslagen tot nu toe
+     * @param statistics De uitslagen
+     * @return Of er genoeg bewijs is voor H0 of H1
+     */
+    public Decision test(MatchStatistics statistics) {
+        double llr = statistics.getLogLikelihoodRatio(elo0, elo1);
+        if (llr >= upperBound) {
+            return Decision.ACCEPT_H1;
+        }
+        if (llr <= lowerBound) {
+            return Decision.ACCEPT_H0;
+        }
+        return Decision.CONTINUE;
+    }
+
+    public double getLowerBound() {
+        return lowerBound;
+    }
+
+    public double getUpperBound() {
+        return upperBound;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SPRT [%.1f, %.1f] alpha %.2f beta %.2f", elo0, elo1, alpha, beta);
+    }
+
+    /**
+     * Beschrijft de stand van de test, bijvoorbeeld "LLR 1.23 (-2.94, 2.94) continue"
+     */
+    public String describe(MatchStatistics statistics) {
+        Decision decision = test(statistics);
+        return String.format("LLR %.2f (%.2f, %.2f) %s", statistics.getLogLikelihoodRatio(elo0, elo1),
+                lowerBound, upperBound,
+                decision == Decision.ACCEPT_H1 ? "H1 accepted" : decision == Decision.ACCEPT_H0 ? "H0 accepted" : "continue");
+    }
+}
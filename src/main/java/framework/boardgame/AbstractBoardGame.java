@@ -7,14 +7,28 @@ import java.util.List;
  * Abstracte basis klasse voor bordspellen
  * Bevat gemeenschappelijke functionaliteit voor TicTacToe, Reversi en andere bordspellen
  * Gebruikt de bestaande logica uit TicTacToe als basis
+ *
+ * Elke zet wordt als verschil bijgehouden in een geschiedenis, zodat zetten in O(aantal omgedraaide
+ * stenen) teruggedraaid ({@link #undo()}) en opnieuw gedaan ({@link #redo()}) kunnen worden.
+ * Daarvoor moet elke wijziging van het bord via {@link #setCell(int, char)} lopen, die ook de hash bijwerkt.
+ *
+ * Een spel hoort bij één thread (meestal de EDT). Andere threads krijgen een {@link BoardSnapshot}
+ * van {@link #snapshot()} en zoeken in een eigen spel uit een {@link GamePool}.
  */
 public abstract class AbstractBoardGame {
-    public char[] board;
+    /** Teken voor een leeg vakje in de notatie van {@link #toNotation(char)}. */
+    public static final char NOTATION_EMPTY = '-';
+
+    protected char[] board;
     protected final int boardSize;        // Totaal aantal vakjes (9 voor TicTacToe, 64 voor Reversi)
     protected final int boardWidth;        // Breedte van het bord (3 voor TicTacToe, 8 voor Reversi)
     protected final int boardHeight;         // Hoogte van het bord (3 voor TicTacToe, 8 voor Reversi)
     protected final char emptySymbol;       // Symbool voor leeg vakje (' ' voor TicTacToe)
     protected GameStatus status;
+    private final MoveHistory history = new MoveHistory();
+    private long hash = 0L;              // positionHash(), bijgewerkt door setCell
+    private int recordingMove = -1;      // Zet in de geschiedenis die nu uitgevoerd wordt
+    private BoardSnapshot snapshot;      // Laatste snapshot, gedeeld tot het bord verandert
     
     /**
      * Constructor - initialiseert een nieuw spelbord
@@ -41,6 +55,10 @@ public abstract class AbstractBoardGame {
             board[i] = emptySymbol;
         }
         status = GameStatus.IN_PROGRESS;
+        hash = 0L;
+        history.clear();
+        recordingMove = -1;
+        snapshot = null;
     }
     
     /**
@@ -64,8 +82,10 @@ public abstract class AbstractBoardGame {
      */
     public void doMove(int pos, char player) {
         if (isValidPosition(pos) && board[pos] == emptySymbol) {
-            board[pos] = player;
+            beginMove(pos, player);
+            setCell(pos, player);
             updateStatus();
+            endMove();
         }
     }
 
@@ -79,16 +99,132 @@ public abstract class AbstractBoardGame {
 
     /**
      * Maakt een zet ongedaan (gebruikt door AI algoritmes)
-     * Gebruikt de logica uit de originele TicTacToe.undoMove()
+     * Als de laatste zet op deze positie was, wordt die zet volledig teruggedraaid (ook omgedraaide stenen);
+     * anders wordt alleen het vakje leeggemaakt, zoals in de originele TicTacToe.undoMove()
      * @param pos De positie om leeg te maken
      */
     public void undoMove(int pos) {
-        if (isValidPosition(pos)) {
-            board[pos] = emptySymbol;
+        if (history.size > 0 && history.cells[history.size - 1] == pos) {
+            undo();
+        } else if (isValidPosition(pos)) {
+            history.clear(); // De geschiedenis klopt niet meer met het bord
+            setCell(pos, emptySymbol);
             status = GameStatus.IN_PROGRESS; // Reset status bij undo
         }
     }
 
+    /**
+     * Draait de laatste zet terug: het vakje, de omgedraaide stenen, de status en de hash
+     * @return true als er een zet teruggedraaid is
+     */
+    public boolean undo() {
+        if (history.size == 0) {
+            return false;
+        }
+        int move = --history.size;
+        for (long flipped = history.flips[move]; flipped != 0; flipped &= flipped - 1) {
+            setCell(Long.numberOfTrailingZeros(flipped), history.flippedFrom[move]);
+        }
+        setCell(history.cells[move], history.previous[move]);
+        status = history.statusBefore[move];
+        hash = history.hashBefore[move];
+        return true;
+    }
+
+    /**
+     * Voert de laatst teruggedraaide zet opnieuw uit
+     * De omgedraaide stenen krijgen weer het symbool van de speler die de zet deed
+     * @return true als er een zet opnieuw uitgevoerd is
+     */
+    public boolean redo() {
+        if (history.size == history.end) {
+            return false;
+        }
+        int move = history.size++;
+        char player = history.players[move];
+        setCell(history.cells[move], player);
+        for (long flipped = history.flips[move]; flipped != 0; flipped &= flipped - 1) {
+            setCell(Long.numberOfTrailingZeros(flipped), player);
+        }
+        status = history.statusAfter[move];
+        return true;
+    }
+
+    public boolean canUndo() {
+        return history.size > 0;
+    }
+
+    public boolean canRedo() {
+        return history.size < history.end;
+    }
+
+    /**
+     * Krijg het aantal zetten in de geschiedenis (zonder de teruggedraaide zetten)
+     */
+    public int getMoveCount() {
+        return history.size;
+    }
+
+    /**
+     * Krijg de positie van de laatste zet
+     * @return De index, of -1 als er geen zet is
+     */
+    public int getLastMove() {
+        return history.size > 0 ? history.cells[history.size - 1] : -1;
+    }
+
+    /**
+     * Krijg de speler van de laatste zet
+     * @return Het symbool, of het leeg symbool als er geen zet is
+     */
+    public char getLastMovePlayer() {
+        return history.size > 0 ? history.players[history.size - 1] : emptySymbol;
+    }
+
+    /**
+     * Begint een zet in de geschiedenis; wijzigingen via setCell tot endMove horen bij deze zet
+     * @param pos Het vakje waar de steen geplaatst wordt
+     * @param player De speler
+     */
+    protected void beginMove(int pos, char player) {
+        recordingMove = history.push(pos, player, board[pos], hash, status);
+    }
+
+    /**
+     * Sluit de zet af die met beginMove begonnen is en bewaart de nieuwe status
+     */
+    protected void endMove() {
+        if (recordingMove >= 0) {
+            history.statusAfter[recordingMove] = status;
+            recordingMove = -1;
+        }
+    }
+
+    /**
+     * Zet een symbool op een vakje en werkt de hash bij
+     * Tijdens een zet worden andere vakjes dan het geplaatste vakje als omgedraaid onthouden
+     * @param pos De positie (index)
+     * @param symbol Het nieuwe symbool
+     */
+    protected void setCell(int pos, char symbol) {
+        char old = board[pos];
+        if (old == symbol) {
+            return;
+        }
+        if (old != emptySymbol) {
+            hash ^= cellHash(pos, old);
+        }
+        if (symbol != emptySymbol) {
+            hash ^= cellHash(pos, symbol);
+        }
+        board[pos] = symbol;
+        snapshot = null;
+        if (recordingMove >= 0 && pos != history.cells[recordingMove] && pos < 64) {
+            history.flips[recordingMove] |= 1L << pos;
+            history.flippedFrom[recordingMove] = old;
+        }
+    }
+
     /**
      * Controleert of een positie vrij is
      * Gebruikt de logica uit de originele TicTacToe.isFree()
@@ -152,6 +288,213 @@ public abstract class AbstractBoardGame {
         return moves;
     }
 
+    /**
+     * Controleert of een speler op een positie mag zetten
+     * Standaard is elk vrij vakje een geldige zet; spellen met andere regels overschrijven dit
+     * @param pos De positie (index)
+     * @param player De speler
+     * @return true als de zet geldig is
+     */
+    public boolean isLegalMove(int pos, char player) {
+        return isFree(pos);
+    }
+
+    /**
+     * Krijg alle geldige zetten van een speler
+     * @param player De speler
+     * @return Lijst van indices waar de speler mag zetten
+     */
+    public List<Integer> getLegalMoves(char player) {
+        List<Integer> moves = new ArrayList<>();
+        for (int i = 0; i < boardSize; i++) {
+            if (isLegalMove(i, player)) {
+                moves.add(i);
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Krijg een 64-bit hash van de stukken op het bord (Zobrist-achtig: XOR van een hash per bezet vakje)
+     * De hash wordt bij elke wijziging via setCell bijgewerkt, dus dit kost geen tijd
+     * Wie aan de beurt is zit er niet in; zoekalgoritmes voegen dat zelf toe
+     * @return De hash van de bordpositie
+     */
+    public long positionHash() {
+        return hash;
+    }
+
+    /**
+     * Berekent de hash opnieuw vanuit het bord
+     * Alleen nodig als het bord buiten setCell om is aangepast
+     */
+    public void rehash() {
+        hash = 0L;
+        for (int i = 0; i < boardSize; i++) {
+            if (board[i] != emptySymbol) {
+                hash ^= cellHash(i, board[i]);
+            }
+        }
+    }
+
+    /**
+     * Hash van één symbool op één vakje (splitmix64 van positie en symbool)
+     * @param pos De positie (index)
+     * @param symbol Het symbool op die positie
+     * @return De hash
+     */
+    protected static long cellHash(int pos, char symbol) {
+        long h = ((long) pos << 16 | symbol) * 0x9E3779B97F4A7C15L;
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+
+    /**
+     * Maakt een kopie van het bord, zodat een zoekalgoritme het na een zet kan terugzetten
+     * @return Een kopie van het bord array
+     */
+    public char[] copyBoard() {
+        return board.clone();
+    }
+
+    /**
+     * Zet het bord en de status terug naar een eerder gemaakte kopie
+     * De zetgeschiedenis wordt daarbij gewist
+     * @param savedBoard Een kopie van copyBoard()
+     * @param savedStatus De status op het moment van de kopie
+     */
+    public void restoreBoard(char[] savedBoard, GameStatus savedStatus) {
+        System.arraycopy(savedBoard, 0, board, 0, boardSize);
+        status = savedStatus;
+        rehash();
+        history.clear();
+        recordingMove = -1;
+        snapshot = null;
+    }
+
+    /**
+     * Krijg een onveranderlijke kopie van het bord en de status
+     * Zolang het bord niet verandert wordt dezelfde snapshot teruggegeven, dus dit kost meestal niets.
+     * Aanroepen vanuit de thread die het spel bezit; de snapshot zelf mag naar elke thread.
+     * @return De snapshot
+     */
+    public BoardSnapshot snapshot() {
+        BoardSnapshot current = snapshot;
+        if (current == null || current.getStatus() != status) {
+            current = new BoardSnapshot(board, boardWidth, boardHeight, emptySymbol, status, hash);
+            snapshot = current;
+        }
+        return current;
+    }
+
+    /**
+     * Zet het bord en de status terug naar een snapshot
+     * Alleen vakjes die verschillen worden gezet (via setCell, dus subklassen blijven kloppen).
+     * De zetgeschiedenis wordt daarbij gewist.
+     * @param saved De snapshot
+     * @return false als de snapshot van een bord met een ander formaat is
+     */
+    public boolean restore(BoardSnapshot saved) {
+        if (saved == null || saved.getBoardWidth() != boardWidth || saved.getBoardHeight() != boardHeight
+                || saved.getEmptySymbol() != emptySymbol) {
+            return false;
+        }
+        recordingMove = -1;
+        history.clear();
+        char[] cells = saved.toArray();
+        for (int i = 0; i < boardSize; i++) {
+            if (board[i] != cells[i]) {
+                setCell(i, cells[i]);
+            }
+        }
+        status = saved.getStatus();
+        snapshot = saved;
+        return true;
+    }
+
+    /**
+     * Schrijft de positie in de notatie van één regel (zie {@link #parseNotation(CharSequence, int)})
+     * @param playerToMove De speler die aan zet is
+     * @return De notatie, bijvoorbeeld "X-O-X---- O" voor TicTacToe
+     */
+    public String toNotation(char playerToMove) {
+        StringBuilder out = new StringBuilder(boardSize + 2);
+        appendNotation(out, playerToMove);
+        return out.toString();
+    }
+
+    /**
+     * Voegt de notatie van de positie toe aan een StringBuilder, zonder tussenliggende String
+     * @param out De StringBuilder
+     * @param playerToMove De speler die aan zet is
+     */
+    public void appendNotation(StringBuilder out, char playerToMove) {
+        for (int i = 0; i < boardSize; i++) {
+            out.append(board[i] == emptySymbol ? NOTATION_EMPTY : board[i]);
+        }
+        out.append(' ').append(playerToMove);
+    }
+
+    /**
+     * Zet het bord op een positie in notatie; zie {@link #parseNotation(CharSequence, int)}
+     */
+    public char parseNotation(CharSequence text) {
+        return parseNotation(text, 0);
+    }
+
+    /**
+     * Zet het bord op een positie in notatie
+     * De notatie is één regel: alle vakjes rij voor rij (het symbool van de speler, of '-' of '.' voor leeg),
+     * daarna spaties en de speler die aan zet is. Na de speler moet de tekst ophouden of witruimte volgen,
+     * zodat veel posities uit één lange tekst gelezen kunnen worden zonder substrings.
+     * De tekst wordt eerst helemaal gecontroleerd; bij een fout blijft het bord zoals het was.
+     * De zetgeschiedenis wordt gewist en de status opnieuw bepaald.
+     * @param text De tekst
+     * @param start De index van het eerste vakje in de tekst
+     * @return De speler die aan zet is, of 0 als de tekst geen geldige positie voor dit spel is
+     */
+    public char parseNotation(CharSequence text, int start) {
+        int length = text.length();
+        int end = start + boardSize;
+        if (start < 0 || end >= length) {
+            return 0;
+        }
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c != NOTATION_EMPTY && c != '.' && !isPlayerSymbol(c)) {
+                return 0;
+            }
+        }
+        int pos = end;
+        while (pos < length && text.charAt(pos) == ' ') {
+            pos++;
+        }
+        if (pos == end || pos == length || !isPlayerSymbol(text.charAt(pos))
+                || (pos + 1 < length && !Character.isWhitespace(text.charAt(pos + 1)))) {
+            return 0;
+        }
+
+        for (int i = 0; i < boardSize; i++) {
+            char c = text.charAt(start + i);
+            board[i] = c == NOTATION_EMPTY || c == '.' ? emptySymbol : c;
+        }
+        // Via restoreBoard: één keer de hash berekenen (en subklassen tellen opnieuw), i.p.v. setCell per vakje
+        restoreBoard(board, status);
+        updateStatus();
+        return text.charAt(pos);
+    }
+
+    /**
+     * Controleert of een teken het symbool van een speler is (gebruikt door de notatie)
+     * Standaard 'X' en 'O'; spellen met andere symbolen overschrijven dit
+     * @param symbol Het teken
+     * @return true als het een speler is
+     */
+    protected boolean isPlayerSymbol(char symbol) {
+        return symbol == 'X' || symbol == 'O';
+    }
+
     /**
      * Update de spel status (win/draw/bezig)
      */
@@ -217,6 +560,7 @@ public abstract class AbstractBoardGame {
 
     /**
      * Krijg het bord array
+     * Alleen lezen: wijzigingen moeten via doMove of restoreBoard, anders kloppen hash en geschiedenis niet
      * @return Het bord array
      */
     public char[] getBord() {
@@ -0,0 +1,179 @@
+package framework.boardgame;
+
+import java.util.Arrays;
+
+/**
+ * Onveranderlijke, compacte kopie van een bord op één moment
+ * Elk vakje kost een paar bits (2 bits bij leeg plus twee spelers), dus een Reversi bord is 2 longs.
+ * Een snapshot kan zonder synchronisatie aan andere threads gegeven worden: alle velden zijn final
+ * en worden na het maken niet meer veranderd.
+ *
+ * Maak een snapshot met {@link AbstractBoardGame#snapshot()} en zet hem terug in een (ander) spel met
+ * {@link AbstractBoardGame#restore(BoardSnapshot)} of via een {@link GamePool}.
+ */
+public final class BoardSnapshot {
+    private final int boardWidth;
+    private final int boardHeight;
+    private final char[] symbols;       // symbols[0] is het leeg symbool, daarna in volgorde van voorkomen
+    private final int bits;             // Bits per vakje
+    private final long[] cells;
+    private final GameStatus status;
+    private final long hash;
+
+    BoardSnapshot(char[] board, int boardWidth, int boardHeight, char emptySymbol, GameStatus status, long hash) {
+        this.boardWidth = boardWidth;
+        this.boardHeight = boardHeight;
+        this.status = status;
+        this.hash = hash;
+
+        int size = boardWidth * boardHeight;
+        char[] found = new char[4];
+        found[0] = emptySymbol;
+        int count = 1;
+        for (int i = 0; i < size; i++) {
+            char symbol = board[i];
+            if (indexOf(found, count, symbol) < 0) {
+                if (count == found.length) {
+                    found = Arrays.copyOf(found, count * 2);
+                }
+                found[count++] = symbol;
+            }
+        }
+        this.symbols = Arrays.copyOf(found, count);
+        this.bits = Math.max(1, 32 - Integer.numberOfLeadingZeros(count - 1));
+
+        // Per long zoveel mogelijk hele vakjes, van het laagste bit af
+        int perLong = 64 / bits;
+        long[] packed = new long[(size + perLong - 1) / perLong];
+        for (int word = 0, pos = 0; pos < size; word++) {
+            long value = 0L;
+            for (int shift = 0, end = Math.min(size, pos + perLong); pos < end; pos++, shift += bits) {
+                value |= (long) indexOf(symbols, count, board[pos]) << shift;
+            }
+            packed[word] = value;
+        }
+        this.cells = packed;
+    }
+
+    private static int indexOf(char[] symbols, int count, char symbol) {
+        for (int i = 0; i < count; i++) {
+            if (symbols[i] == symbol) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Krijg het symbool op een bepaalde positie
+     * @param pos De positie (index)
+     * @return Het symbool op die positie, of het leeg symbool buiten het bord
+     */
+    public char getSymbolAt(int pos) {
+        if (pos < 0 || pos >= getBoardSize()) {
+            return symbols[0];
+        }
+        int perLong = 64 / bits;
+        int code = (int) (cells[pos / perLong] >>> (pos % perLong * bits)) & ((1 << bits) - 1);
+        return symbols[code];
+    }
+
+    /**
+     * Krijg het symbool op een bepaalde rij en kolom
+     * @param row De rij
+     * @param column De kolom
+     * @return Het symbool op die positie
+     */
+    public char getSymbolAt(int row, int column) {
+        return getSymbolAt(row * boardWidth + column);
+    }
+
+    public boolean isFree(int pos) {
+        return pos >= 0 && pos < getBoardSize() && getSymbolAt(pos) == symbols[0];
+    }
+
+    /**
+     * Telt het aantal vakjes met een symbool
+     * @param symbol Het symbool
+     * @return Het aantal vakjes
+     */
+    public int count(char symbol) {
+        int count = 0;
+        for (int i = 0; i < getBoardSize(); i++) {
+            if (getSymbolAt(i) == symbol) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Kopieert het bord naar een array
+     * @param target De array (minstens {@link #getBoardSize()} lang)
+     */
+    public void copyInto(char[] target) {
+        int size = Math.min(getBoardSize(), target.length);
+        int perLong = 64 / bits;
+        int mask = (1 << bits) - 1;
+        for (int word = 0, pos = 0; pos < size; word++) {
+            long value = cells[word];
+            for (int end = Math.min(size, pos + perLong); pos < end; pos++, value >>>= bits) {
+                target[pos] = symbols[(int) value & mask];
+            }
+        }
+    }
+
+    /**
+     * Krijg het bord als nieuwe array
+     * @return Een kopie van het bord
+     */
+    public char[] toArray() {
+        char[] board = new char[getBoardSize()];
+        copyInto(board);
+        return board;
+    }
+
+    public int getBoardWidth() { return boardWidth; }
+    public int getBoardHeight() { return boardHeight; }
+    public int getBoardSize() { return boardWidth * boardHeight; }
+    public char getEmptySymbol() { return symbols[0]; }
+    public GameStatus getStatus() { return status; }
+
+    public boolean isGameOver() {
+        return status != GameStatus.IN_PROGRESS && status != GameStatus.NOT_STARTED;
+    }
+
+    /**
+     * Krijg de hash van de bordpositie, gelijk aan {@link AbstractBoardGame#positionHash()} bij het maken
+     */
+    public long positionHash() {
+        return hash;
+    }
+
+    /**
+     * Twee snapshots zijn gelijk als het bord en de status gelijk zijn
+     * Gelijke borden geven dezelfde symbooltabel, dus de verpakte vakjes kunnen direct vergeleken worden
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof BoardSnapshot)) {
+            return false;
+        }
+        BoardSnapshot that = (BoardSnapshot) other;
+        return hash == that.hash && boardWidth == that.boardWidth && boardHeight == that.boardHeight
+                && status == that.status && Arrays.equals(symbols, that.symbols) && Arrays.equals(cells, that.cells);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(hash);
+    }
+
+    @Override
+    public String toString() {
+        return new String(toArray());
+    }
+}
@@ -0,0 +1,265 @@
+package framework.boardgame;
+
+/**
+ * Symmetrieën van een vierkant bord: 4 draaiingen en 4 spiegelingen
+ * Een stand en zijn gespiegelde of gedraaide versies hebben dezelfde waarde, dus een cache
+ * (transpositietabel, openingsboek, tablebase) hoeft maar één van de 8 op te slaan: de canonieke vorm.
+ *
+ * Een transformatie is een getal van 0 tot 7; 0 is de identiteit. Op een vakje (rij, kolom) wordt
+ * eerst bit 0 (kolommen spiegelen) toegepast, dan bit 1 (rijen spiegelen) en dan bit 2
+ * (spiegelen in de diagonaal, rij en kolom wisselen).
+ *
+ * Een stand wordt beschreven met twee bitmaskers, één per speler (bit rij * breedte + kolom).
+ * Voor 8x8 borden (Reversi) worden de 64-bits maskers met bitbord-trucs gespiegeld,
+ * voor 3x3 borden (TicTacToe) met vooraf berekende tabellen.
+ */
+public final class BoardSymmetry {
+    public static final int TRANSFORMS = 8;
+    public static final int IDENTITY = 0;
+
+    // Per transformatie: het beeld van elk 9-bits masker van een 3x3 bord
+    private static final int[][] MASKS_3X3 = new int[TRANSFORMS][1 << 9];
+
+    static {
+        for (int t = 0; t < TRANSFORMS; t++) {
+            for (int mask = 0; mask < MASKS_3X3[t].length; mask++) {
+                for (int cell = 0; cell < 9; cell++) {
+                    if ((mask & (1 << cell)) != 0) {
+                        MASKS_3X3[t][mask] |= 1 << transformCell(cell, t, 3);
+                    }
+                }
+            }
+        }
+    }
+
+    private BoardSymmetry() {
+    }
+
+    /**
+     * De canonieke vorm van een stand, met de transformatie die er naartoe leidt
+     */
+    public static final class Canonical {
+        private final long first;
+        private final long second;
+        private final int transform;
+        private final int side;
+
+        private Canonical(long first, long second, int transform, int side) {
+            this.first = first;
+            this.second = second;
+            this.transform = transform;
+            this.side = side;
+        }
+
+        /**
+         * Krijg het canonieke masker van de eerste speler
+         */
+        public long getFirst() {
+            return first;
+        }
+
+        /**
+         * Krijg het canonieke masker van de tweede speler
+         */
+        public long getSecond() {
+            return second;
+        }
+
+        /**
+         * Krijg de transformatie van de originele stand naar de canonieke vorm
+         */
+        public int getTransform() {
+            return transform;
+        }
+
+        /**
+         * Zet een vakje van de originele stand om naar de canonieke vorm
+         * @param cell Het vakje in de originele stand
+         * @return Het vakje in de canonieke vorm
+         */
+        public int toCanonical(int cell) {
+            return transformCell(cell, transform, side);
+        }
+
+        /**
+         * Zet een vakje van de canonieke vorm terug naar de originele stand
+         * (bijvoorbeeld een zet uit een openingsboek of tablebase)
+         * @param cell Het vakje in de canonieke vorm
+         * @return Het vakje in de originele stand
+         */
+        public int fromCanonical(int cell) {
+            return transformCell(cell, inverse(transform), side);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Canonical)) {
+                return false;
+            }
+            Canonical canonical = (Canonical) other;
+            return first == canonical.first && second == canonical.second && side == canonical.side;
+        }
+
+        @Override
+        public int hashCode() {
+            long h = first * 0x9E3779B97F4A7C15L ^ second;
+            h = (h ^ (h >>> 32)) * 0xD6E8FEB86659FD93L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+
+    /**
+     * Past een transformatie toe op een vakje
+     * @param cell Het vakje (rij * side + kolom)
+     * @param transform De transformatie (0-7)
+     * @param side De breedte en hoogte van het bord
+     * @return Het vakje na de transformatie
+     */
+    public static int transformCell(int cell, int transform, int side) {
+        int row = cell / side;
+        int col = cell % side;
+        if ((transform & 1) != 0) {
+            col = side - 1 - col;
+        }
+        if ((transform & 2) != 0) {
+            row = side - 1 - row;
+        }
+        if ((transform & 4) != 0) {
+            int swap = row;
+            row = col;
+            col = swap;
+        }
+        return row * side + col;
+    }
+
+    /**
+     * Krijg de transformatie die een transformatie ongedaan maakt
+     * Spiegelingen zijn hun eigen inverse; na het wisselen van rij en kolom
+     * wisselen ook de twee spiegelingen van rol.
+     */
+    public static int inverse(int transform) {
+        if ((transform & 4) == 0) {
+            return transform;
+        }
+        return 4 | (transform & 1) << 1 | (transform & 2) >> 1;
+    }
+
+    /**
+     * Past een transformatie toe op een 8x8 bitbord
+     * @param bits Het bitbord (bit rij * 8 + kolom)
+     * @param transform De transformatie (0-7)
+     * @return Het getransformeerde bitbord
+     */
+    public static long transform(long bits, int transform) {
+        if ((transform & 1) != 0) {
+            bits = mirrorColumns(bits);
+        }
+        if ((transform & 2) != 0) {
+            bits = Long.reverseBytes(bits); // Elke rij is één byte
+        }
+        if ((transform & 4) != 0) {
+            bits = transpose(bits);
+        }
+        return bits;
+    }
+
+    /**
+     * Spiegelt de kolommen: de bits binnen elke byte omdraaien
+     */
+    private static long mirrorColumns(long bits) {
+        bits = (bits >>> 1) & 0x5555555555555555L | (bits & 0x5555555555555555L) << 1;
+        bits = (bits >>> 2) & 0x3333333333333333L | (bits & 0x3333333333333333L) << 2;
+        return (bits >>> 4) & 0x0F0F0F0F0F0F0F0FL | (bits & 0x0F0F0F0F0F0F0F0FL) << 4;
+    }
+
+    /**
+     * Spiegelt in de diagonaal (rij en kolom wisselen) met drie delta swaps
+     */
+    private static long transpose(long bits) {
+        long t = 0x0F0F0F0F00000000L & (bits ^ (bits << 28));
+        bits ^= t ^ (t >>> 28);
+        t = 0x3333000033330000L & (bits ^ (bits << 14));
+        bits ^= t ^ (t >>> 14);
+        t = 0x5500550055005500L & (bits ^ (bits << 7));
+        return bits ^ t ^ (t >>> 7);
+    }
+
+    /**
+     * Bepaalt de canonieke vorm van een 8x8 stand: de kleinste van de 8 versies,
+     * eerst op het masker van de eerste speler en dan op dat van de tweede
+     * @param first Het bitbord van de eerste speler (bijvoorbeeld zwart)
+     * @param second Het bitbord van de tweede speler
+     * @return De canonieke maskers en de transformatie
+     */
+    public static Canonical canonical(long first, long second) {
+        long bestFirst = first;
+        long bestSecond = second;
+        int best = IDENTITY;
+        for (int t = 1; t < TRANSFORMS; t++) {
+            long f = transform(first, t);
+            long s = transform(second, t);
+            int compare = Long.compareUnsigned(f, bestFirst);
+            if (compare < 0 || compare == 0 && Long.compareUnsigned(s, bestSecond) < 0) {
+                bestFirst = f;
+                bestSecond = s;
+                best = t;
+            }
+        }
+        return new Canonical(bestFirst, bestSecond, best, 8);
+    }
+
+    /**
+     * Bepaalt de canonieke vorm van een 3x3 stand
+     * @param first Het 9-bits masker van de eerste speler (bijvoorbeeld X)
+     * @param second Het 9-bits masker van de tweede speler
+     * @return De canonieke maskers en de transformatie
+     */
+    public static Canonical canonical3x3(int first, int second) {
+        int bestFirst = first;
+        int bestSecond = second;
+        int best = IDENTITY;
+        for (int t = 1; t < TRANSFORMS; t++) {
+            int f = MASKS_3X3[t][first];
+            int s = MASKS_3X3[t][second];
+            if (f < bestFirst || f == bestFirst && s < bestSecond) {
+                bestFirst = f;
+                bestSecond = s;
+                best = t;
+            }
+        }
+        return new Canonical(bestFirst, bestSecond, best, 3);
+    }
+
+    /**
+     * Bepaalt de canonieke vorm van een spelbord (3x3 of 8x8)
+     * @param game Het spel
+     * @param firstSymbol Het symbool van de eerste speler
+     * @param secondSymbol Het symbool van de tweede speler
+     * @return De canonieke vorm, of null als het bord geen 3x3 of 8x8 bord is
+     */
+    public static Canonical canonical(AbstractBoardGame game, char firstSymbol, char secondSymbol) {
+        char[] board = game.getBord();
+        long first = mask(board, firstSymbol);
+        long second = mask(board, secondSymbol);
+        if (game.getBoardWidth() == 8 && game.getBoardHeight() == 8) {
+            return canonical(first, second);
+        }
+        if (game.getBoardWidth() == 3 && game.getBoardHeight() == 3) {
+            return canonical3x3((int) first, (int) second);
+        }
+        return null;
+    }
+
+    /**
+     * Maakt een bitmasker van de vakjes met een bepaald symbool (maximaal 64 vakjes)
+     */
+    public static long mask(char[] board, char symbol) {
+        long mask = 0L;
+        for (int i = 0; i < board.length && i < 64; i++) {
+            if (board[i] == symbol) {
+                mask |= 1L << i;
+            }
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,208 @@
+package framework.boardgame;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Leest een archief met spelverslagen (geschreven door {@link GameRecordWriter}) via memory mapping
+ * Bij het openen wordt één keer door het bestand gelopen om de begin-offset van elk record te bepalen.
+ * Daarna lezen de getters direct uit het gemapte geheugen, zonder objecten te maken, zodat statistieken
+ * over miljoenen spellen snel berekend kunnen worden. Alleen {@link #getRecord(int)} maakt een volledig
+ * {@link GameRecord}, bijvoorbeeld om een spel opnieuw af te spelen.
+ *
+ * Het archief kan vanuit meerdere threads tegelijk gelezen worden.
+ */
+public class GameArchive implements AutoCloseable {
+    private static final ValueLayout.OfShort U16 =
+            ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfInt I32 =
+            ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfLong I64 =
+            ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    private final Arena arena;
+    private final MemorySegment data;
+    private final long[] offsets;
+    private final int size;
+
+    private GameArchive(Arena arena, MemorySegment data, long[] offsets, int size) {
+        this.arena = arena;
+        this.data = data;
+        this.offsets = offsets;
+        this.size = size;
+    }
+
+    /**
+     * Opent een archief (alleen lezen)
+     * @param file Het archiefbestand
+     * @return Het archief, of null als het bestand ontbreekt of geen archief is
+     */
+    public static GameArchive open(Path file) {
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < GameRecordWriter.FILE_HEADER_SIZE) {
+                arena.close();
+                return null;
+            }
+            MemorySegment data = channel.map(FileChannel.MapMode.READ_ONLY, 0, length, arena);
+            if (data.get(I32, 0) != GameRecordWriter.MAGIC) {
+                arena.close();
+                return null;
+            }
+
+            long[] offsets = new long[1024];
+            int size = 0;
+            long offset = GameRecordWriter.FILE_HEADER_SIZE;
+            while (offset + GameRecord.HEADER_SIZE <= length) {
+                int recordLength = Short.toUnsignedInt(data.get(U16, offset));
+                // Een afgebroken laatste record wordt overgeslagen
+                if (recordLength < GameRecord.HEADER_SIZE + 2 || offset + recordLength > length) {
+                    break;
+                }
+                if (size == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, size * 2);
+                }
+                offsets[size++] = offset;
+                offset += recordLength;
+            }
+            return new GameArchive(arena, data, offsets, size);
+        } catch (IOException e) {
+            arena.close();
+            return null;
+        }
+    }
+
+    /**
+     * Krijg het aantal spellen in het archief
+     */
+    public int size() {
+        return size;
+    }
+
+    public int getGameType(int game) {
+        return u8(offsets[game] + 2);
+    }
+
+    public int getWidth(int game) {
+        return u8(offsets[game] + 3);
+    }
+
+    public int getHeight(int game) {
+        return u8(offsets[game] + 4);
+    }
+
+    /**
+     * Krijg de uitslag van een spel
+     * @return {@link GameRecord#UNFINISHED}, {@link GameRecord#FIRST_WINS},
+     *         {@link GameRecord#SECOND_WINS} of {@link GameRecord#DRAW}
+     */
+    public int getResult(int game) {
+        return u8(offsets[game] + 5);
+    }
+
+    public char getFirstSymbol(int game) {
+        return (char) u8(offsets[game] + 6);
+    }
+
+    public char getSecondSymbol(int game) {
+        return (char) u8(offsets[game] + 7);
+    }
+
+    public long getStartTime(int game) {
+        return data.get(I64, offsets[game] + 8);
+    }
+
+    public int getDuration(int game) {
+        return data.get(I32, offsets[game] + 16);
+    }
+
+    public int getMoveCount(int game) {
+        return Short.toUnsignedInt(data.get(U16, offsets[game] + 20));
+    }
+
+    /**
+     * Krijg een zet van een spel
+     * @param game Het spelnummer
+     * @param move Het zetnummer (0-gebaseerd)
+     * @return De index van het vakje, of {@link GameRecord#PASS}
+     */
+    public int getMove(int game, int move) {
+        return u8(movesOffset(offsets[game]) + move);
+    }
+
+    /**
+     * Kopieert alle zetten van een spel naar een array
+     * @param game Het spelnummer
+     * @param target De array (minstens {@link #getMoveCount(int)} lang)
+     * @return Het aantal zetten
+     */
+    public int getMoves(int game, byte[] target) {
+        int count = Math.min(getMoveCount(game), target.length);
+        MemorySegment.copy(data, ValueLayout.JAVA_BYTE, movesOffset(offsets[game]), target, 0, count);
+        return count;
+    }
+
+    public String getFirstName(int game) {
+        return string(offsets[game] + GameRecord.HEADER_SIZE);
+    }
+
+    public String getSecondName(int game) {
+        long first = offsets[game] + GameRecord.HEADER_SIZE;
+        return string(first + 1 + u8(first));
+    }
+
+    /**
+     * Leest een volledig spelverslag uit het archief
+     * @param game Het spelnummer
+     * @return Het verslag
+     */
+    public GameRecord getRecord(int game) {
+        GameRecord record = new GameRecord(getGameType(game), getWidth(game), getHeight(game),
+                getFirstName(game), getFirstSymbol(game), getSecondName(game), getSecondSymbol(game),
+                getStartTime(game));
+        int count = getMoveCount(game);
+        for (int i = 0; i < count; i++) {
+            int move = getMove(game, i);
+            if (move == GameRecord.PASS) {
+                record.addPass();
+            } else {
+                record.addMove(move);
+            }
+        }
+        record.setResult(getResult(game), getDuration(game));
+        return record;
+    }
+
+    private long movesOffset(long offset) {
+        long names = offset + GameRecord.HEADER_SIZE;
+        names += 1 + u8(names);
+        return names + 1 + u8(names);
+    }
+
+    private int u8(long offset) {
+        return Byte.toUnsignedInt(data.get(ValueLayout.JAVA_BYTE, offset));
+    }
+
+    private String string(long offset) {
+        byte[] bytes = new byte[u8(offset)];
+        MemorySegment.copy(data, ValueLayout.JAVA_BYTE, offset + 1, bytes, 0, bytes.length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Sluit het archief; de getters kunnen daarna niet meer gebruikt worden
+     */
+    @Override
+    public void close() {
+        arena.close();
+    }
+}
@@ -0,0 +1,132 @@
+package framework.boardgame;
+
+/**
+ * Schaakklok voor twee spelers: een basistijd plus een increment per gespeelde zet (Fischer)
+ * De klok van de speler die aan zet is loopt; {@link #press(char)} stopt die klok, telt de increment op
+ * en start de klok van de tegenstander. Alle methodes zijn synchronized, zodat de UI de klok
+ * kan uitlezen terwijl de AI op een andere thread denkt.
+ */
+public class GameClock {
+    private final char firstSymbol;
+    private final char secondSymbol;
+    private final long baseMillis;
+    private final long incrementMillis;
+    private final long[] remainingNanos = new long[2];
+    private int running = -1;          // 0 of 1, -1 als de klok stilstaat
+    private long runningSince;
+
+    /**
+     * @param firstSymbol Het symbool van de eerste speler
+     * @param secondSymbol Het symbool van de tweede speler
+     * @param baseMillis De bedenktijd per speler voor het hele spel
+     * @param incrementMillis De tijd die er per gespeelde zet bij komt
+     */
+    public GameClock(char firstSymbol, char secondSymbol, long baseMillis, long incrementMillis) {
+        this.firstSymbol = firstSymbol;
+        this.secondSymbol = secondSymbol;
+        this.baseMillis = Math.max(0, baseMillis);
+        this.incrementMillis = Math.max(0, incrementMillis);
+        reset();
+    }
+
+    /**
+     * Zet beide klokken terug op de basistijd en stopt de klok
+     */
+    public final synchronized void reset() {
+        remainingNanos[0] = baseMillis * 1_000_000;
+        remainingNanos[1] = baseMillis * 1_000_000;
+        running = -1;
+    }
+
+    /**
+     * Laat de klok van een speler lopen (zonder increment voor de ander), bijvoorbeeld aan het begin
+     * of als de tegenstander moet passen
+     * @param player Het symbool van de speler die aan zet is
+     */
+    public synchronized void start(char player) {
+        int side = side(player);
+        if (side < 0) {
+            return;
+        }
+        stopRunning();
+        running = side;
+        runningSince = System.nanoTime();
+    }
+
+    /**
+     * Een speler heeft gezet: diens klok stopt en krijgt de increment, en de klok van de tegenstander loopt
+     * @param player Het symbool van de speler die net gezet heeft
+     */
+    public synchronized void press(char player) {
+        int side = side(player);
+        if (side < 0) {
+            return;
+        }
+        if (running == side) {
+            stopRunning();
+        }
+        if (remainingNanos[side] > 0) {
+            remainingNanos[side] += incrementMillis * 1_000_000;
+        }
+        running = 1 - side;
+        runningSince = System.nanoTime();
+    }
+
+    /**
+     * Stopt de klok (einde van het spel)
+     */
+    public synchronized void stop() {
+        stopRunning();
+        running = -1;
+    }
+
+    private void stopRunning() {
+        if (running >= 0) {
+            remainingNanos[running] -= System.nanoTime() - runningSince;
+        }
+    }
+
+    /**
+     * Krijg de resterende tijd van een speler, inclusief de lopende zet
+     * @param player Het symbool van de speler
+     * @return De resterende tijd in milliseconden (0 als de tijd op is)
+     */
+    public synchronized long getRemaining(char player) {
+        int side = side(player);
+        if (side < 0) {
+            return 0;
+        }
+        long nanos = remainingNanos[side];
+        if (running == side) {
+            nanos -= System.nanoTime() - runningSince;
+        }
+        return Math.max(0, nanos / 1_000_000);
+    }
+
+    /**
+     * Controleert of de tijd van een speler op is
+     */
+    public synchronized boolean isFlagged(char player) {
+        return side(player) >= 0 && getRemaining(player) <= 0;
+    }
+
+    /**
+     * Krijg de speler wiens klok loopt
+     * @return Het symbool, of 0 als de klok stilstaat
+     */
+    public synchronized char getRunning() {
+        return running < 0 ? 0 : running == 0 ? firstSymbol : secondSymbol;
+    }
+
+    public long getBaseMillis() {
+        return baseMillis;
+    }
+
+    public long getIncrementMillis() {
+        return incrementMillis;
+    }
+
+    private int side(char player) {
+        return player == firstSymbol ? 0 : player == secondSymbol ? 1 : -1;
+    }
+}
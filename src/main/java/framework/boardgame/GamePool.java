@@ -0,0 +1,65 @@
+package framework.boardgame;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Voorraad herbruikbare spellen voor zoek-threads
+ * Een AI-thread vraagt een spel op met de positie van een {@link BoardSnapshot}, zoekt daarin met doMove en undo,
+ * en geeft het daarna terug. Het spel van de UI wordt zo nooit door een andere thread aangeraakt,
+ * en er wordt niet voor elke zoekopdracht een nieuw spel gemaakt.
+ *
+ * Opvragen en teruggeven kan vanuit elke thread; een opgevraagd spel hoort bij één thread tot het teruggegeven is.
+ * @param <T> Het soort spel
+ */
+public class GamePool<T extends AbstractBoardGame> {
+    private final Supplier<T> factory;
+    private final int maxIdle;
+    private final ConcurrentLinkedQueue<T> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    /**
+     * @param factory Maakt een nieuw spel als de voorraad leeg is
+     * @param maxIdle Maximaal aantal spellen dat bewaard wordt; meer teruggegeven spellen worden weggegooid
+     */
+    public GamePool(Supplier<T> factory, int maxIdle) {
+        this.factory = factory;
+        this.maxIdle = Math.max(0, maxIdle);
+    }
+
+    /**
+     * Vraag een spel op met de positie van een snapshot
+     * @param snapshot De positie
+     * @return Een spel dat alleen door de aanroepende thread gebruikt wordt, of null als de snapshot
+     *         niet bij dit soort spel past (ander formaat bord)
+     */
+    public T acquire(BoardSnapshot snapshot) {
+        T game = idle.poll();
+        if (game != null) {
+            idleCount.decrementAndGet();
+        } else {
+            game = factory.get();
+        }
+        if (!game.restore(snapshot)) {
+            release(game);
+            return null;
+        }
+        return game;
+    }
+
+    /**
+     * Geef een spel terug aan de voorraad; het mag daarna niet meer gebruikt worden
+     * @param game Het spel (null wordt genegeerd)
+     */
+    public void release(T game) {
+        if (game == null) {
+            return;
+        }
+        if (idleCount.incrementAndGet() <= maxIdle) {
+            idle.offer(game);
+        } else {
+            idleCount.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package framework.boardgame;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Verslag van één gespeeld spel: spelers, uitslag, tijden en alle zetten
+ * Elke zet is één byte (de index van het vakje, of {@link #PASS}), zodat een spel Reversi
+ * met kop en al minder dan 100 bytes kost.
+ *
+ * Binair formaat van een record (little-endian), zoals geschreven door {@link GameRecordWriter}:
+ * <pre>
+ *  0  u16  lengte van het hele record in bytes
+ *  2  u8   speltype ({@link #TICTACTOE}, {@link #REVERSI}, {@link #MNK})
+ *  3  u8   breedte van het bord
+ *  4  u8   hoogte van het bord
+ *  5  u8   uitslag ({@link #UNFINISHED}, {@link #FIRST_WINS}, {@link #SECOND_WINS}, {@link #DRAW})
+ *  6  u8   symbool van de eerste speler
+ *  7  u8   symbool van de tweede speler
+ *  8  i64  starttijd (milliseconden sinds 1970)
+ * 16  i32  speelduur in milliseconden
+ * 20  u16  aantal zetten
+ * 22  u8   lengte naam eerste speler, gevolgd door de naam (UTF-8)
+ *     u8   lengte naam tweede speler, gevolgd door de naam (UTF-8)
+ *     u8[] zetten
+ * </pre>
+ */
+public class GameRecord {
+    public static final int TICTACTOE = 1;
+    public static final int REVERSI = 2;
+    public static final int MNK = 3;
+
+    public static final int UNFINISHED = 0;
+    public static final int FIRST_WINS = 1;
+    public static final int SECOND_WINS = 2;
+    public static final int DRAW = 3;
+
+    /** Zet-byte voor een beurt waarin de speler moest passen. */
+    public static final int PASS = 0xFF;
+
+    static final int HEADER_SIZE = 22;
+    static final int MAX_MOVES = 0xFFFF;
+    private static final int MAX_NAME_BYTES = 0xFF;
+
+    private final int gameType;
+    private final int width;
+    private final int height;
+    private final String firstName;
+    private final String secondName;
+    private final char firstSymbol;
+    private final char secondSymbol;
+    private final long startTime;
+    private int result = UNFINISHED;
+    private int duration = 0;
+    private byte[] moves = new byte[64];
+    private int moveCount = 0;
+
+    /**
+     * Begint een nieuw verslag; de starttijd is nu
+     * @param gameType Het speltype ({@link #TICTACTOE}, {@link #REVERSI} of {@link #MNK})
+     * @param width De breedte van het bord (maximaal 255 vakjes in totaal)
+     * @param height De hoogte van het bord
+     * @param firstName De naam van de speler die begint
+     * @param firstSymbol Het symbool van de speler die begint
+     * @param secondName De naam van de tweede speler
+     * @param secondSymbol Het symbool van de tweede speler
+     */
+    public GameRecord(int gameType, int width, int height, String firstName, char firstSymbol,
+                      String secondName, char secondSymbol) {
+        this(gameType, width, height, firstName, firstSymbol, secondName, secondSymbol, System.currentTimeMillis());
+    }
+
+    GameRecord(int gameType, int width, int height, String firstName, char firstSymbol,
+               String secondName, char secondSymbol, long startTime) {
+        this.gameType = gameType;
+        this.width = width;
+        this.height = height;
+        this.firstName = firstName == null ? "" : firstName;
+        this.secondName = secondName == null ? "" : secondName;
+        this.firstSymbol = firstSymbol;
+        this.secondSymbol = secondSymbol;
+        this.startTime = startTime;
+    }
+
+    /**
+     * Voegt een zet toe
+     * @param index De index van het vakje (0-254)
+     */
+    public void addMove(int index) {
+        if (index < 0 || index >= PASS) {
+            return;
+        }
+        add((byte) index);
+    }
+
+    /**
+     * Voegt een beurt toe waarin de speler moest passen
+     */
+    public void addPass() {
+        add((byte) PASS);
+    }
+
+    /**
+     * Haalt de laatste zet weg (bij terugnemen), samen met de passes die erna kwamen
+     */
+    public void removeLastMove() {
+        while (moveCount > 0 && (moves[moveCount - 1] & 0xFF) == PASS) {
+            moveCount--;
+        }
+        if (moveCount > 0) {
+            moveCount--;
+        }
+    }
+
+    private void add(byte move) {
+        if (moveCount == MAX_MOVES) {
+            return;
+        }
+        if (moveCount == moves.length) {
+            moves = Arrays.copyOf(moves, Math.min(MAX_MOVES, moves.length * 2));
+        }
+        moves[moveCount++] = move;
+    }
+
+    /**
+     * Sluit het verslag af met een uitslag; de speelduur loopt tot nu
+     * @param result {@link #FIRST_WINS}, {@link #SECOND_WINS} of {@link #DRAW}
+     */
+    public void finish(int result) {
+        this.result = result;
+        this.duration = (int) Math.min(Integer.MAX_VALUE, System.currentTimeMillis() - startTime);
+    }
+
+    void setResult(int result, int duration) {
+        this.result = result;
+        this.duration = duration;
+    }
+
+    static byte[] nameBytes(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        return bytes.length <= MAX_NAME_BYTES ? bytes : Arrays.copyOf(bytes, MAX_NAME_BYTES);
+    }
+
+    public int getGameType() { return gameType; }
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public String getFirstName() { return firstName; }
+    public String getSecondName() { return secondName; }
+    public char getFirstSymbol() { return firstSymbol; }
+    public char getSecondSymbol() { return secondSymbol; }
+    public long getStartTime() { return startTime; }
+    public int getResult() { return result; }
+    public int getDuration() { return duration; }
+    public int getMoveCount() { return moveCount; }
+
+    /**
+     * Krijg een zet
+     * @param i Het zetnummer (0-gebaseerd)
+     * @return De index van het vakje, of {@link #PASS}
+     */
+    public int getMove(int i) {
+        return moves[i] & 0xFF;
+    }
+
+    byte[] getMoveBytes() {
+        return moves;
+    }
+}
@@ -0,0 +1,100 @@
+package framework.boardgame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Schrijft verslagen van gespeelde spellen achter elkaar in een archiefbestand
+ * Er wordt alleen aan het eind toegevoegd: een verslag wordt in één keer geschreven als het spel klaar is,
+ * dus een archief bevat nooit een half spel (hooguit een afgebroken laatste record, dat
+ * {@link GameArchive} overslaat). Meerdere controllers kunnen dezelfde writer gebruiken.
+ */
+public class GameRecordWriter implements AutoCloseable {
+    static final int MAGIC = 0x43455247; // "GREC"
+    static final int FILE_HEADER_SIZE = 4;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(1 << 17).order(ByteOrder.LITTLE_ENDIAN);
+
+    private GameRecordWriter(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Opent een archief om aan toe te voegen; maakt het bestand als het nog niet bestaat
+     * @param file Het archiefbestand
+     * @return De writer, of null als het bestand niet geopend kon worden
+     */
+    public static GameRecordWriter open(Path file) {
+        try {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            GameRecordWriter writer = new GameRecordWriter(channel);
+            if (channel.size() == 0) {
+                writer.buffer.clear();
+                writer.buffer.putInt(MAGIC);
+                writer.flush();
+            }
+            return writer;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Voegt een verslag toe aan het archief
+     * @param record Het verslag
+     * @return true als het verslag geschreven is
+     */
+    public synchronized boolean append(GameRecord record) {
+        byte[] first = GameRecord.nameBytes(record.getFirstName());
+        byte[] second = GameRecord.nameBytes(record.getSecondName());
+        int length = GameRecord.HEADER_SIZE + 2 + first.length + second.length + record.getMoveCount();
+        if (length > 0xFFFF) {
+            return false;
+        }
+        buffer.clear();
+        buffer.putShort((short) length);
+        buffer.put((byte) record.getGameType());
+        buffer.put((byte) record.getWidth());
+        buffer.put((byte) record.getHeight());
+        buffer.put((byte) record.getResult());
+        buffer.put((byte) record.getFirstSymbol());
+        buffer.put((byte) record.getSecondSymbol());
+        buffer.putLong(record.getStartTime());
+        buffer.putInt(record.getDuration());
+        buffer.putShort((short) record.getMoveCount());
+        buffer.put((byte) first.length).put(first);
+        buffer.put((byte) second.length).put(second);
+        buffer.put(record.getMoveBytes(), 0, record.getMoveCount());
+        try {
+            flush();
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Sluit het archiefbestand
+     */
+    @Override
+    public synchronized void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Negeer fouten bij sluiten
+        }
+    }
+}
@@ -25,7 +25,7 @@ public class Move {
      * @param boardWidth De breedte van het bord
      */
     public Move(int index, char player, int boardWidth) {
-        this.position = new Position(index, boardWidth);
+        this.position = Position.of(index, boardWidth);
         this.player = player;
     }
     
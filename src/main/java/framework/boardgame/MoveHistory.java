@@ -0,0 +1,58 @@
+package framework.boardgame;
+
+import java.util.Arrays;
+
+/**
+ * Geschiedenis van zetten als verschillen (deltas), voor undo en redo
+ * Per zet: het geplaatste vakje, de speler, wat er eerst op dat vakje stond, een masker van de
+ * omgedraaide vakjes met hun vorige symbool, en de status en hash van voor en na de zet.
+ * Alles staat in parallelle arrays, zodat doen en terugdraaien niets alloceert.
+ *
+ * Zetten 0 tot size zijn uitgevoerd; zetten size tot end zijn teruggedraaid en kunnen opnieuw
+ * uitgevoerd worden, tot er een nieuwe zet gedaan wordt.
+ */
+final class MoveHistory {
+    int[] cells = new int[64];
+    char[] players = new char[64];
+    char[] previous = new char[64];       // Symbool op het vakje voor de zet
+    long[] flips = new long[64];          // Omgedraaide vakjes (alleen borden tot 64 vakjes)
+    char[] flippedFrom = new char[64];    // Symbool van de omgedraaide vakjes voor de zet
+    long[] hashBefore = new long[64];
+    GameStatus[] statusBefore = new GameStatus[64];
+    GameStatus[] statusAfter = new GameStatus[64];
+    int size = 0;
+    int end = 0;
+
+    /**
+     * Begint een nieuwe zet; zetten die voor redo bewaard werden vervallen
+     * @return De index van de zet
+     */
+    int push(int cell, char player, char previousSymbol, long hash, GameStatus status) {
+        if (size == cells.length) {
+            int capacity = size * 2;
+            cells = Arrays.copyOf(cells, capacity);
+            players = Arrays.copyOf(players, capacity);
+            previous = Arrays.copyOf(previous, capacity);
+            flips = Arrays.copyOf(flips, capacity);
+            flippedFrom = Arrays.copyOf(flippedFrom, capacity);
+            hashBefore = Arrays.copyOf(hashBefore, capacity);
+            statusBefore = Arrays.copyOf(statusBefore, capacity);
+            statusAfter = Arrays.copyOf(statusAfter, capacity);
+        }
+        int move = size++;
+        end = size;
+        cells[move] = cell;
+        players[move] = player;
+        previous[move] = previousSymbol;
+        flips[move] = 0L;
+        hashBefore[move] = hash;
+        statusBefore[move] = status;
+        statusAfter[move] = status;
+        return move;
+    }
+
+    void clear() {
+        size = 0;
+        end = 0;
+    }
+}
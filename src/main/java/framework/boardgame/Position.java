@@ -1,10 +1,19 @@
 package framework.boardgame;
 
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 /**
  * Representeert een positie op een spelbord
  * Kan gebruikt worden voor verschillende bordspellen (TicTacToe, Reversi, etc.)
+ *
+ * Posities zijn onveranderlijk. Gebruik {@link #of(int, int)} om een gedeelde instantie te krijgen
+ * in plaats van steeds een nieuwe te maken.
  */
 public class Position {
+    // Gedeelde posities per bordbreedte (width x width vakjes), pas gemaakt bij het eerste gebruik
+    private static final int MAX_CACHED_WIDTH = 32;
+    private static final AtomicReferenceArray<Position[]> CACHE = new AtomicReferenceArray<>(MAX_CACHED_WIDTH + 1);
+
     private final int index;        // Lineaire index (0-8 voor TicTacToe, 0-63 voor Reversi)
     private final int row;          // Rij nummer
     private final int column;        // Kolom nummer
@@ -32,6 +41,53 @@ public class Position {
         this.index = row * boardWidth + column;
     }
     
+    /**
+     * Krijg de gedeelde positie voor een index, zonder iets te alloceren
+     * Valt terug op een nieuwe positie voor borden breder dan 32 of indices buiten het vierkant
+     * @param index De positie als lineaire index
+     * @param boardWidth De breedte van het bord
+     * @return De positie
+     */
+    public static Position of(int index, int boardWidth) {
+        Position[] table = table(boardWidth);
+        if (table == null || index < 0 || index >= table.length) {
+            return new Position(index, boardWidth);
+        }
+        return table[index];
+    }
+
+    /**
+     * Krijg de gedeelde positie voor een rij en kolom
+     * @param row De rij (0-gebaseerd)
+     * @param column De kolom (0-gebaseerd)
+     * @param boardWidth De breedte van het bord
+     * @return De positie
+     */
+    public static Position of(int row, int column, int boardWidth) {
+        if (column < 0 || column >= boardWidth) {
+            return new Position(row, column, boardWidth);
+        }
+        return of(row * boardWidth + column, boardWidth);
+    }
+
+    private static Position[] table(int boardWidth) {
+        if (boardWidth < 1 || boardWidth > MAX_CACHED_WIDTH) {
+            return null;
+        }
+        Position[] table = CACHE.get(boardWidth);
+        if (table == null) {
+            table = new Position[boardWidth * boardWidth];
+            for (int i = 0; i < table.length; i++) {
+                table[i] = new Position(i, boardWidth);
+            }
+            // Bij een gelijktijdige aanroep wint de eerste tabel; beide zijn gelijkwaardig
+            if (!CACHE.compareAndSet(boardWidth, null, table)) {
+                table = CACHE.get(boardWidth);
+            }
+        }
+        return table;
+    }
+
     /**
      * Krijg de lineaire index van deze positie
      * @return De index
@@ -0,0 +1,125 @@
+package framework.controllers;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import javax.swing.SwingUtilities;
+
+/**
+ * AIExecutor voert zoekopdrachten van de AI uit op achtergrondthreads, zodat de EDT vrij blijft
+ * Een zoekopdracht geeft een CompletableFuture terug. Annuleren (cancel) of een verlopen deadline
+ * onderbreekt de zoekthread; zoekalgoritmes die de interrupt-vlag controleren stoppen dan meteen.
+ * De uitkomst kan op de afleverthread (de EDT bij {@link #getInstance()}) afgehandeld worden.
+ *
+ * De standaard instance heeft één zoekthread: zoekopdrachten lopen na elkaar, dus een AI object
+ * wordt nooit door twee zoekopdrachten tegelijk gebruikt (ook niet als een geannuleerde nog afrondt).
+ */
+public final class AIExecutor {
+    private static AIExecutor instance;
+    private static final AtomicInteger threadNumber = new AtomicInteger();
+
+    private final ExecutorService workers;
+    private final Executor delivery;
+
+    /**
+     * Maakt een executor, bijvoorbeeld zonder UI (aflevering met Runnable::run)
+     * @param threads Het aantal zoekthreads
+     * @param delivery Waar de uitkomsten afgehandeld worden
+     */
+    public AIExecutor(int threads, Executor delivery) {
+        this.workers = Executors.newFixedThreadPool(Math.max(1, threads), task -> {
+            Thread thread = new Thread(task, "ai-search-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.delivery = delivery;
+    }
+
+    /**
+     * Singleton pattern - krijg de executor van de applicatie (één zoekthread, aflevering op de EDT)
+     */
+    public static synchronized AIExecutor getInstance() {
+        if (instance == null) {
+            instance = new AIExecutor(1, SwingUtilities::invokeLater);
+        }
+        return instance;
+    }
+
+    /**
+     * Start een zoekopdracht zonder deadline
+     * @param search De zoekopdracht; draait op een zoekthread
+     * @return De uitkomst
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> search) {
+        return submit(search, 0);
+    }
+
+    /**
+     * Start een zoekopdracht
+     * @param search De zoekopdracht; draait op een zoekthread
+     * @param timeoutMillis De deadline in milliseconden (0 = geen); daarna eindigt de uitkomst met een
+     *                      TimeoutException en wordt de zoekthread onderbroken
+     * @return De uitkomst; cancel(true) of cancel(false) onderbreekt de zoekthread
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> search, long timeoutMillis) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task;
+        try {
+            task = workers.submit(() -> {
+                if (result.isDone()) {
+                    return; // Geannuleerd of verlopen voordat de zoekopdracht begon
+                }
+                try {
+                    result.complete(search.get());
+                } catch (RuntimeException | Error e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+        if (timeoutMillis > 0) {
+            result.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+        result.whenComplete((value, error) -> {
+            if (error != null) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Start een zoekopdracht en handel de uitkomst af op de afleverthread
+     * @param search De zoekopdracht; draait op een zoekthread
+     * @param timeoutMillis De deadline in milliseconden (0 = geen)
+     * @param onDone Krijgt de uitkomst, of de fout (bijvoorbeeld een TimeoutException);
+     *               wordt niet aangeroepen als de zoekopdracht geannuleerd is
+     * @return De uitkomst, om te kunnen annuleren
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> search, long timeoutMillis,
+                                           BiConsumer<? super T, ? super Throwable> onDone) {
+        CompletableFuture<T> result = submit(search, timeoutMillis);
+        result.whenCompleteAsync((value, error) -> {
+            if (!result.isCancelled()) {
+                onDone.accept(value, error);
+            }
+        }, delivery);
+        return result;
+    }
+
+    /**
+     * Stopt alle zoekthreads; lopende zoekopdrachten worden onderbroken
+     */
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+}
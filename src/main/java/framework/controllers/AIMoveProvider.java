@@ -0,0 +1,131 @@
+package framework.controllers;
+
+import framework.ai.TimeManager;
+import framework.boardgame.AbstractBoardGame;
+import framework.boardgame.BoardSnapshot;
+import framework.boardgame.GameClock;
+import framework.boardgame.GamePool;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Zetten van een AI: de zoekopdracht krijgt een eigen kopie van de positie uit een {@link GamePool}
+ * Zonder executor wordt er op de thread van de runner gezocht (zonder UI het snelst), met een
+ * {@link AIExecutor} op de achtergrond met een deadline.
+ */
+public class AIMoveProvider<T extends AbstractBoardGame> implements MoveProvider {
+    private final GamePool<T> games;
+    private final Search<T> search;
+    private final AIExecutor executor;
+    private long timeoutMillis = 0;
+    private GameClock clock;
+    private TimeManager timeManager;
+    private volatile CompletableFuture<Integer> pendingMove;
+
+    /**
+     * Zoekt een zet in een kopie van de positie
+     */
+    public interface Search<T extends AbstractBoardGame> {
+        /**
+         * @param game Een eigen kopie van de positie; mag veranderd worden
+         * @param player De speler die aan zet is
+         * @param budgetMillis De tijd voor de zoekopdracht (0 = de eigen instellingen van de AI)
+         * @return De positie (index) van de zet
+         */
+        int findMove(T game, char player, long budgetMillis);
+    }
+
+    /**
+     * Maakt een AI die op de thread van de runner zoekt
+     * @param factory Maakt een leeg spel voor de kopieën
+     * @param search De zoekopdracht
+     */
+    public AIMoveProvider(Supplier<T> factory, Search<T> search) {
+        this(factory, search, null);
+    }
+
+    /**
+     * @param factory Maakt een leeg spel voor de kopieën
+     * @param search De zoekopdracht
+     * @param executor Waar de zoekopdracht draait (null = op de thread van de runner)
+     */
+    public AIMoveProvider(Supplier<T> factory, Search<T> search, AIExecutor executor) {
+        this.games = new GamePool<>(factory, 2);
+        this.search = search;
+        this.executor = executor;
+    }
+
+    /**
+     * Stel een deadline per zet in (alleen met een executor)
+     * @param millis De deadline in milliseconden (0 = geen deadline)
+     */
+    public void setTimeout(long millis) {
+        this.timeoutMillis = Math.max(0, millis);
+    }
+
+    /**
+     * Stel de klok in waaruit de TimeManager per zet een budget bepaalt
+     * @param clock De klok (dezelfde als die van de runner), of null
+     * @param timeManager De verdeling van de tijd
+     */
+    public void setClock(GameClock clock, TimeManager timeManager) {
+        this.clock = clock;
+        this.timeManager = timeManager;
+    }
+
+    @Override
+    public CompletableFuture<Integer> requestMove(BoardSnapshot position, char player, List<Integer> legalMoves) {
+        if (legalMoves.size() == 1) {
+            return CompletableFuture.completedFuture(legalMoves.get(0)); // Gedwongen zet: niet zoeken
+        }
+        T probe = games.acquire(position);
+        if (probe == null) {
+            return CompletableFuture.completedFuture(legalMoves.get(0)); // Positie past niet in dit spel
+        }
+
+        // Met een klok: budget voor de zoekopdracht en een harde deadline als vangnet
+        long budget = 0;
+        long timeout = timeoutMillis;
+        if (clock != null && timeManager != null) {
+            budget = timeManager.allocate(clock, player, probe);
+            long hardLimit = timeManager.hardLimit(clock.getRemaining(player), budget);
+            timeout = timeout > 0 ? Math.min(timeout, hardLimit) : hardLimit;
+        }
+        games.release(probe);
+
+        // Het zoekspel wordt pas op de zoekthread opgevraagd: een zoekopdracht die geannuleerd of verlopen is
+        // voordat hij begint wordt door de executor overgeslagen en houdt dan geen spel uit de voorraad vast.
+        // Teruggeven bij het einde van de future kan niet: na een deadline kan de zoekopdracht nog lopen.
+        long searchBudget = budget;
+        Supplier<Integer> task = () -> {
+            T searchGame = games.acquire(position);
+            try {
+                return search.findMove(searchGame, player, searchBudget);
+            } finally {
+                games.release(searchGame);
+            }
+        };
+
+        if (executor == null) {
+            try {
+                return CompletableFuture.completedFuture(task.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        CompletableFuture<Integer> request = executor.submit(task, timeout);
+        pendingMove = request;
+        return request;
+    }
+
+    @Override
+    public void cancel() {
+        CompletableFuture<Integer> request = pendingMove;
+        if (request != null) {
+            request.cancel(true);
+            pendingMove = null;
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package framework.controllers;
+
+import framework.boardgame.AbstractBoardGame;
+import framework.boardgame.GameClock;
+import framework.boardgame.GameResult;
+import framework.players.AbstractPlayer;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * GameRunner speelt een spel tussen twee spelers uit met een lus in plaats van callbacks
+ * Elke speler heeft een {@link MoveProvider} (mens, AI of netwerk), dus elke combinatie werkt, ook AI tegen AI.
+ * Passen (geen geldige zet terwijl de tegenstander wel kan) en het einde van het spel (isGameOver, of
+ * niemand kan meer zetten) regelt de runner zelf, voor elk spel dat AbstractBoardGame uitbreidt.
+ *
+ * Er zijn twee manieren om te spelen:
+ * - {@link #run()} blokkeert tot het einde; zonder UI zo snel als de spelers zetten
+ * - {@link #start(Executor)} is event-gestuurd: elke beurt gaat verder op de afleverthread (bijvoorbeeld de EDT)
+ *   zodra de zet binnen is. Zetten die meteen klaar zijn worden in dezelfde lus gespeeld, zodat de
+ *   stack niet per zet groeit.
+ * Alleen de afleverthread (of de thread van run) mag het spel lezen terwijl de runner loopt.
+ */
+public class GameRunner<T extends AbstractBoardGame> {
+    private final T game;
+    private final AbstractPlayer[] players;
+    private final MoveProvider[] providers;
+    private int current = 0;                            // Index van de speler die aan zet is
+    private Listener listener;
+    private GameClock clock;                            // null = geen tijdcontrole
+    private volatile boolean gameDone = false;
+    private GameResult result;
+    private Executor delivery;
+    private volatile CompletableFuture<Integer> pendingMove;
+    private int turnId = 0;                             // Verhoogd bij elke wachtende zet; oude uitkomsten worden genegeerd
+    private long requestTime;
+    private int moveCount = 0;
+    private int passCount = 0;
+
+    /**
+     * Listener interface voor het verloop van het spel
+     */
+    public interface Listener {
+        /**
+         * @param move De positie (index) van de zet
+         * @param player Het symbool van de speler
+         * @param thinkNanos De tijd tussen het vragen en het binnenkomen van de zet
+         */
+        void onMovePlayed(int move, char player, long thinkNanos);
+        void onPass(char player);
+        void onGameEnded(GameResult result);
+    }
+
+    /**
+     * @param game Het spel, in de beginpositie (of een opening)
+     * @param player1 De eerste speler (begint, tenzij {@link #setCurrentPlayer(char)})
+     * @param provider1 De zetten van de eerste speler
+     * @param player2 De tweede speler
+     * @param provider2 De zetten van de tweede speler (mag dezelfde AI als provider1 zijn)
+     */
+    public GameRunner(T game, AbstractPlayer player1, MoveProvider provider1,
+                      AbstractPlayer player2, MoveProvider provider2) {
+        this.game = game;
+        this.players = new AbstractPlayer[] {player1, player2};
+        this.providers = new MoveProvider[] {provider1, provider2};
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Stel een klok in; wie door de tijd gaat verliest
+     * @param clock De klok, of null voor geen tijdcontrole
+     */
+    public void setClock(GameClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Stel in wie begint, bijvoorbeeld na {@link AbstractBoardGame#parseNotation(CharSequence)}
+     * @param symbol Het symbool van de speler die aan zet is
+     * @return false als het symbool van geen van beide spelers is
+     */
+    public boolean setCurrentPlayer(char symbol) {
+        for (int i = 0; i < players.length; i++) {
+            if (players[i].getSymbol() == symbol) {
+                current = i;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Speelt het spel tot het einde; blokkeert de aanroepende thread
+     * @return De uitslag, of null als het spel gestopt of de thread onderbroken is
+     */
+    public GameResult run() {
+        startClock();
+        List<Integer> moves;
+        while (!gameDone && (moves = prepareTurn()) != null) {
+            CompletableFuture<Integer> request = requestMove(moves);
+            pendingMove = request;
+            Integer move;
+            try {
+                if (clock == null) {
+                    move = request.get();
+                } else {
+                    move = request.get(clock.getRemaining(symbol(current)) + 1, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stop();
+                return null;
+            } catch (ExecutionException | CancellationException e) {
+                move = null;
+            } catch (TimeoutException e) {
+                request.cancel(true);
+                move = null; // De klok is gevallen; play() handelt dat af
+            }
+            pendingMove = null;
+            if (gameDone) {
+                break; // Gestopt door een andere thread
+            }
+            play(moves, move);
+        }
+        if (!gameDone) {
+            endGame(determineResult());
+        }
+        return result;
+    }
+
+    /**
+     * Start het spel event-gestuurd; keert meteen terug
+     * @param delivery Waar de beurten afgehandeld worden (bijvoorbeeld SwingUtilities::invokeLater)
+     */
+    public void start(Executor delivery) {
+        this.delivery = delivery;
+        startClock();
+        delivery.execute(this::drive);
+    }
+
+    /**
+     * Speelt beurten tot er op een zet gewacht moet worden (op de afleverthread)
+     */
+    private void drive() {
+        List<Integer> moves;
+        while (!gameDone && (moves = prepareTurn()) != null) {
+            CompletableFuture<Integer> request = requestMove(moves);
+            if (!request.isDone()) {
+                int turn = ++turnId;
+                pendingMove = request;
+                List<Integer> legalMoves = moves;
+                request.whenCompleteAsync((move, error) -> {
+                    if (turn != turnId || gameDone) {
+                        return; // Gestopt of achterhaald
+                    }
+                    pendingMove = null;
+                    play(legalMoves, error == null ? move : null);
+                    drive();
+                }, delivery);
+                return;
+            }
+            play(moves, getNow(request));
+        }
+        if (!gameDone) {
+            endGame(determineResult());
+        }
+    }
+
+    private static Integer getNow(CompletableFuture<Integer> request) {
+        try {
+            return request.join();
+        } catch (CompletionException | CancellationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Bepaalt wie aan zet is en past als die speler geen geldige zet heeft
+     * @return De geldige zetten van de speler die aan zet is, of null als het spel voorbij is
+     */
+    private List<Integer> prepareTurn() {
+        if (game.isGameOver()) {
+            return null;
+        }
+        List<Integer> moves = game.getLegalMoves(symbol(current));
+        if (!moves.isEmpty()) {
+            return moves;
+        }
+        List<Integer> opponentMoves = game.getLegalMoves(symbol(1 - current));
+        if (opponentMoves.isEmpty()) {
+            return null; // Niemand kan zetten
+        }
+        passCount++;
+        if (listener != null) {
+            listener.onPass(symbol(current));
+        }
+        current = 1 - current;
+        if (clock != null) {
+            clock.start(symbol(current));
+        }
+        return opponentMoves;
+    }
+
+    private CompletableFuture<Integer> requestMove(List<Integer> moves) {
+        requestTime = System.nanoTime();
+        return providers[current].requestMove(game.snapshot(), symbol(current), moves);
+    }
+
+    /**
+     * Speelt de zet van de speler die aan zet is
+     * @param legalMoves De geldige zetten bij het vragen
+     * @param move De zet, of null bij een fout; een ongeldige zet wordt de eerste geldige zet
+     */
+    private void play(List<Integer> legalMoves, Integer move) {
+        char player = symbol(current);
+        long thinkNanos = System.nanoTime() - requestTime;
+        if (clock != null && clock.isFlagged(player)) {
+            endGame(GameResult.createWin(players[1 - current]));
+            return;
+        }
+
+        int index = (move != null && legalMoves.contains(move)) ? move : legalMoves.get(0);
+        game.doMove(index, player);
+        moveCount++;
+        if (clock != null) {
+            clock.press(player);
+        }
+        providers[0].onMovePlayed(index, player);
+        if (providers[1] != providers[0]) {
+            providers[1].onMovePlayed(index, player);
+        }
+        if (listener != null) {
+            listener.onMovePlayed(index, player, thinkNanos);
+        }
+        current = 1 - current;
+    }
+
+    /**
+     * Controleer of de speler die aan zet is door de tijd is gegaan; zo ja, dan wint de tegenstander
+     * Bij {@link #start(Executor)} kan de UI dit regelmatig aanroepen, want een mens zet misschien nooit
+     * @return true als het spel daardoor afgelopen is
+     */
+    public boolean checkClock() {
+        if (gameDone || clock == null || !clock.isFlagged(symbol(current))) {
+            return false;
+        }
+        cancelPending();
+        endGame(GameResult.createWin(players[1 - current]));
+        return true;
+    }
+
+    /**
+     * Breekt het spel af zonder uitslag; een wachtende zet wordt geannuleerd
+     * Mag ook vanaf een andere thread dan die van {@link #run()} aangeroepen worden
+     */
+    public void stop() {
+        if (gameDone) {
+            return;
+        }
+        gameDone = true;
+        cancelPending();
+        if (clock != null) {
+            clock.stop();
+        }
+    }
+
+    private void cancelPending() {
+        turnId++;
+        if (pendingMove != null) {
+            pendingMove.cancel(true);
+            pendingMove = null;
+        }
+        providers[current].cancel();
+    }
+
+    private void startClock() {
+        if (clock != null) {
+            clock.start(symbol(current));
+        }
+    }
+
+    private void endGame(GameResult gameResult) {
+        gameDone = true;
+        result = gameResult;
+        if (clock != null) {
+            clock.stop();
+        }
+        if (listener != null) {
+            listener.onGameEnded(gameResult);
+        }
+    }
+
+    /**
+     * Bepaal de uitslag met isWin van het spel (bij Reversi de speler met de meeste schijven)
+     */
+    private GameResult determineResult() {
+        for (AbstractPlayer player : players) {
+            if (game.isWin(player.getSymbol())) {
+                return GameResult.createWin(player);
+            }
+        }
+        return GameResult.createDraw();
+    }
+
+    private char symbol(int index) {
+        return players[index].getSymbol();
+    }
+
+    // Getters
+    public T getGame() { return game; }
+    public AbstractPlayer getCurrentPlayer() { return players[current]; }
+    public AbstractPlayer getPlayer1() { return players[0]; }
+    public AbstractPlayer getPlayer2() { return players[1]; }
+    public boolean isGameDone() { return gameDone; }
+    public GameResult getResult() { return result; }
+    public int getMoveCount() { return moveCount; }
+    public int getPassCount() { return passCount; }
+    public GameClock getClock() { return clock; }
+}
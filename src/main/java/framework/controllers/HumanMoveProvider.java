@@ -0,0 +1,51 @@
+package framework.controllers;
+
+import framework.boardgame.BoardSnapshot;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Zetten van een menselijke speler: de UI geeft een klik door met {@link #submitMove(int)}
+ */
+public class HumanMoveProvider implements MoveProvider {
+    private CompletableFuture<Integer> pendingMove;
+    private List<Integer> legalMoves;
+
+    @Override
+    public synchronized CompletableFuture<Integer> requestMove(BoardSnapshot position, char player,
+                                                               List<Integer> legalMoves) {
+        this.pendingMove = new CompletableFuture<>();
+        this.legalMoves = legalMoves;
+        return pendingMove;
+    }
+
+    /**
+     * Geeft de zet van de speler door (bijvoorbeeld vanuit een klik op het bord)
+     * @param move De positie (index) van de zet
+     * @return false als er geen zet gevraagd is of de zet niet geldig is; de speler mag het dan opnieuw proberen
+     */
+    public synchronized boolean submitMove(int move) {
+        if (pendingMove == null || !legalMoves.contains(move)) {
+            return false;
+        }
+        CompletableFuture<Integer> request = pendingMove;
+        pendingMove = null;
+        return request.complete(move);
+    }
+
+    /**
+     * Controleert of de runner op een zet van deze speler wacht
+     */
+    public synchronized boolean isWaiting() {
+        return pendingMove != null;
+    }
+
+    @Override
+    public synchronized void cancel() {
+        if (pendingMove != null) {
+            pendingMove.cancel(false);
+            pendingMove = null;
+        }
+    }
+}
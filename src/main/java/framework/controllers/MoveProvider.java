@@ -0,0 +1,37 @@
+package framework.controllers;
+
+import framework.boardgame.BoardSnapshot;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Levert de zetten van één speler aan een {@link GameRunner}
+ * Een mens (klik in de UI), een AI (zoekopdracht) of een netwerk speler (bericht van de server)
+ * geeft de zet via een CompletableFuture, zodat de runner nooit hoeft te wachten op een callback
+ * die hem opnieuw aanroept.
+ */
+public interface MoveProvider {
+    /**
+     * Vraagt de volgende zet
+     * @param position De positie; onveranderlijk, dus veilig voor andere threads
+     * @param player Het symbool van de speler die aan zet is
+     * @param legalMoves De geldige zetten (nooit leeg; passen doet de runner zelf)
+     * @return De positie (index) van de zet; een ongeldige zet of een fout geeft de eerste geldige zet
+     */
+    CompletableFuture<Integer> requestMove(BoardSnapshot position, char player, List<Integer> legalMoves);
+
+    /**
+     * Wordt na elke gespeelde zet aangeroepen, van beide spelers (bijvoorbeeld om hem naar de server te sturen)
+     * @param move De positie (index) van de zet
+     * @param player Het symbool van de speler die zette
+     */
+    default void onMovePlayed(int move, char player) {
+    }
+
+    /**
+     * Stopt een gevraagde zet, bijvoorbeeld als het spel afgebroken wordt
+     */
+    default void cancel() {
+    }
+}
@@ -0,0 +1,70 @@
+package framework.controllers;
+
+import framework.boardgame.BoardSnapshot;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntConsumer;
+
+/**
+ * Zetten van een speler aan de andere kant van de server
+ * Zetten van de server komen binnen met {@link #receiveMove(int)} (op de thread van de client); een zet die
+ * binnenkomt voordat de runner erom vraagt wordt bewaard. Zetten van de lokale speler worden naar de server
+ * gestuurd, bijvoorbeeld met client::sendMove.
+ */
+public class NetworkMoveProvider implements MoveProvider {
+    private final char remoteSymbol;
+    private final IntConsumer sender;
+    private final ArrayDeque<Integer> receivedMoves = new ArrayDeque<>();
+    private CompletableFuture<Integer> pendingMove;
+
+    /**
+     * @param remoteSymbol Het symbool van de speler op afstand
+     * @param sender Stuurt een zet van de lokale speler naar de server (null = niet sturen)
+     */
+    public NetworkMoveProvider(char remoteSymbol, IntConsumer sender) {
+        this.remoteSymbol = remoteSymbol;
+        this.sender = sender;
+    }
+
+    @Override
+    public synchronized CompletableFuture<Integer> requestMove(BoardSnapshot position, char player,
+                                                               List<Integer> legalMoves) {
+        if (!receivedMoves.isEmpty()) {
+            return CompletableFuture.completedFuture(receivedMoves.poll());
+        }
+        pendingMove = new CompletableFuture<>();
+        return pendingMove;
+    }
+
+    /**
+     * Geeft een zet van de server door
+     * @param move De positie (index) van de zet
+     */
+    public synchronized void receiveMove(int move) {
+        if (pendingMove != null) {
+            CompletableFuture<Integer> request = pendingMove;
+            pendingMove = null;
+            request.complete(move);
+        } else {
+            receivedMoves.add(move);
+        }
+    }
+
+    @Override
+    public void onMovePlayed(int move, char player) {
+        if (player != remoteSymbol && sender != null) {
+            sender.accept(move);
+        }
+    }
+
+    @Override
+    public synchronized void cancel() {
+        receivedMoves.clear();
+        if (pendingMove != null) {
+            pendingMove.cancel(false);
+            pendingMove = null;
+        }
+    }
+}
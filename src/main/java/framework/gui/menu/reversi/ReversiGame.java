@@ -152,6 +152,7 @@ public class ReversiGame extends JPanel implements ReversiGameController.GameLis
                 "Confirm",
                 JOptionPane.YES_NO_OPTION);
         if (option == JOptionPane.YES_OPTION) {
+            gameController.cancelAIMove();
             menuManager.onReversiGameFinished();
         }
     }
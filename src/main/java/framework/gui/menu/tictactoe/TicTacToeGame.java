@@ -3,7 +3,11 @@ package framework.gui.menu.tictactoe;
 import java.awt.*;
 import javax.swing.*;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+import framework.boardgame.BoardSnapshot;
+import framework.boardgame.GamePool;
+import framework.controllers.AIExecutor;
 import framework.controllers.GameMode;
 import framework.controllers.LanguageManager;
 import framework.controllers.MenuManager;
@@ -12,6 +16,13 @@ import tictactoe.MinimaxAI;
 import server.ClientTicTacToe;
 
 public class TicTacToeGame extends JPanel {
+    // Spellen voor de AI-thread, zodat die nooit het spel van de EDT aanraakt
+    private static final GamePool<TicTacToe> SEARCH_GAMES = new GamePool<>(TicTacToe::new, 2);
+    // Minimale tijd tot de zet van de AI tegen een mens, zodat die zichtbaar na de eigen zet komt
+    private static final int AI_MOVE_DELAY_MILLIS = 500;
+    // Deadline voor een toernooizet; daarna wordt het eerste vrije vakje gespeeld
+    private static final long TOURNAMENT_MOVE_TIMEOUT_MILLIS = 2000;
+
     private final MenuManager menuManager;
     private final GameMode gameMode;
     private final LanguageManager lang = LanguageManager.getInstance();
@@ -20,6 +31,7 @@ public class TicTacToeGame extends JPanel {
     private final String player2;
     private volatile boolean aiTurnPending = false;
     private volatile boolean aiBusy = false;
+    private CompletableFuture<Integer> pendingAiMove;
     private TicTacToeUI gameUI;
 
     private final TicTacToe game = new TicTacToe();
@@ -213,32 +225,48 @@ public class TicTacToeGame extends JPanel {
 
 
     private void doAiMove() {
-        SwingUtilities.invokeLater(() -> {
-            try {
-                Thread.sleep(500);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
+        BoardSnapshot position = game.snapshot();
+        char role = aiRole;
+        long started = System.currentTimeMillis();
+        pendingAiMove = AIExecutor.getInstance().submit(() -> searchMove(position, role), 0, (move, error) -> {
+            // De rest van de pauze met een Swing Timer, zodat de EDT niet slaapt
+            int delay = (int) Math.max(0, AI_MOVE_DELAY_MILLIS - (System.currentTimeMillis() - started));
+            Timer timer = new Timer(delay, e -> playAiMove(move == null ? -1 : move));
+            timer.setRepeats(false);
+            timer.start();
+        });
+    }
 
-            List<Integer> availableMoves = game.getAvailableMoves();
-            if (availableMoves.isEmpty()) return;
+    private void playAiMove(int move) {
+        if (gameDone || game.isGameOver()) return;
 
-            char opponentSymbol = (aiRole == 'X') ? 'O' : 'X';
-            int move = MinimaxAI.bestMove(game, aiRole, opponentSymbol);
+        if (move != -1 && game.isFree(move)) {
+            game.doMove(move, aiRole);
+            gameUI.updateButtonText(move, aiRole);
+        }
 
-            if (move != -1 && game.isFree(move)) {
-                game.doMove(move, aiRole);
-                gameUI.updateButtonText(move, aiRole);
-            }
+        if (game.isGameOver()) {
+            updateGameEndStatus();
+            return;
+        }
 
-            if (game.isGameOver()) {
-                updateGameEndStatus();
-                return;
-            }
+        turnX = (aiRole == 'O');
+        updateStatusLabel();
+    }
 
-            turnX = (aiRole == 'O');
-            updateStatusLabel();
-        });
+    /**
+     * Zoekt een zet op de zoekthread, in een spel uit de voorraad (nooit in het spel van de EDT)
+     * @return De zet, of -1 als er geen vrij vakje is
+     */
+    private static int searchMove(BoardSnapshot position, char role) {
+        TicTacToe searchGame = SEARCH_GAMES.acquire(position);
+        try {
+            if (searchGame.getAvailableMoves().isEmpty()) return -1;
+            char opponentSymbol = (role == 'X') ? 'O' : 'X';
+            return MinimaxAI.bestMove(searchGame, role, opponentSymbol);
+        } finally {
+            SEARCH_GAMES.release(searchGame);
+        }
     }
 
     private void doAiMoveServer() {
@@ -248,52 +276,36 @@ public class TicTacToeGame extends JPanel {
         if (!aiTurnPending || aiBusy) return;
         aiBusy = true;
         aiTurnPending = false;
-
-        new Thread(() -> {
-            try {
-                Thread.sleep(1000);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                aiBusy = false;
-                return;
+        BoardSnapshot position = game.snapshot();
+        char role = aiRole;
+
+        pendingAiMove = AIExecutor.getInstance().submit(() -> searchMove(position, role),
+                TOURNAMENT_MOVE_TIMEOUT_MILLIS, (found, error) -> {
+            int move = (found == null) ? -1 : found;
+            if (error != null) {
+                // Niet op tijd: liever een vrij vakje dan de tijd van de server overschrijden
+                List<Integer> availableMoves = game.getAvailableMoves();
+                move = availableMoves.isEmpty() ? -1 : availableMoves.get(0);
             }
-
-            List<Integer> availableMoves = game.getAvailableMoves();
-            if (availableMoves.isEmpty()) {
+            if (move == -1 || game.isGameOver() || !game.isFree(move)) {
                 aiBusy = false;
                 return;
             }
 
-            char opponentSymbol = (aiRole == 'X') ? 'O' : 'X';
-            int move = MinimaxAI.bestMove(game, aiRole, opponentSymbol);
+            client.sendMove(move);
+            game.doMove(move, aiRole);
+            gameUI.updateButtonText(move, aiRole);
 
-            if (move == -1) {
+            if (game.isGameOver()) {
+                updateGameEndStatus();
                 aiBusy = false;
                 return;
             }
 
-            client.sendMove(move);
-
-            SwingUtilities.invokeLater(() -> {
-                if (game.isGameOver() || !game.isFree(move)) {
-                    aiBusy = false;
-                    return;
-                }
-
-                game.doMove(move, aiRole);
-                gameUI.updateButtonText(move, aiRole);
-
-                if (game.isGameOver()) {
-                    updateGameEndStatus();
-                    aiBusy = false;
-                    return;
-                }
-
-                turnX = (aiRole == 'O');
-                updateStatusLabel();
-                aiBusy = false;
-            });
-        }, "tournament-ai").start();
+            turnX = (aiRole == 'O');
+            updateStatusLabel();
+            aiBusy = false;
+        });
     }
 
     private void updateGameEndStatus() {
@@ -339,6 +351,10 @@ public class TicTacToeGame extends JPanel {
                 JOptionPane.YES_NO_OPTION);
 
         if (option == JOptionPane.YES_OPTION) {
+            if (pendingAiMove != null) {
+                pendingAiMove.cancel(true);
+            }
+            gameDone = true;
             if (gameMode.isServerMode() && client != null) {
                 try {
                     client.quit();
@@ -0,0 +1,171 @@
+package reversi;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size hash table holding the nodes of the MCTS transposition graph.
+ * Every entry is one position (discs plus the player who moved last), so statistics are shared
+ * by all move orders that reach it. Entries live in parallel primitive arrays, so the
+ * memory footprint is fixed when the table is created.
+ *
+ * The table is split in buckets of {@link #WAYS} entries. When a bucket is full the
+ * replacement policy picks, among entries not used by the running simulation,
+ * first the entries that were not used during the current search and then
+ * the entry with the fewest visits.
+ */
+final class MCTSTranspositionTable {
+    static final int WAYS = 4;
+    static final int BYTES_PER_ENTRY = 8 * 4 + 4 + 4 + 1; // key, discs, score, visits, stamp, side
+
+    private final int bucketMask;
+    private final long[] keys;
+    private final long[] blackDiscs;
+    private final long[] whiteDiscs;
+    private final boolean[] blackMoved;
+    private final double[] blackScores;  // Sum of simulation results for black (1 win, 0.5 draw)
+    private final int[] visits;
+    private final int[] lastUsed;        // Stamp of the last simulation that used the entry
+
+    private int size = 0;               // Number of occupied entries (a key is never 0)
+    private long replacements = 0;
+
+    /**
+     * Creates a table with room for at least the given number of entries
+     * @param capacity The requested number of entries (rounded up to a power of two)
+     */
+    MCTSTranspositionTable(int capacity) {
+        int wanted = Math.max(1, (capacity + WAYS - 1) / WAYS);
+        int buckets = Integer.highestOneBit(wanted);
+        if (buckets < wanted) {
+            buckets <<= 1;
+        }
+        bucketMask = buckets - 1;
+        int entries = buckets * WAYS;
+        keys = new long[entries];
+        blackDiscs = new long[entries];
+        whiteDiscs = new long[entries];
+        blackMoved = new boolean[entries];
+        blackScores = new double[entries];
+        visits = new int[entries];
+        lastUsed = new int[entries];
+    }
+
+    /**
+     * Looks up a position
+     * @return The entry index, or -1 if the position is not in the table
+     */
+    int find(long black, long white, boolean blackMovedLast) {
+        long key = ReversiBitboard.hash(black, white, blackMovedLast);
+        int first = bucketStart(key);
+        for (int i = first; i < first + WAYS; i++) {
+            if (keys[i] == key
+                    && blackDiscs[i] == black && whiteDiscs[i] == white && blackMoved[i] == blackMovedLast) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Stores a new position, replacing an entry when the bucket is full
+     * @param stamp The stamp of the running simulation; entries with this stamp are never replaced
+     * @param searchStart The first stamp of the current search; older entries are replaced first
+     * @return The entry index, or -1 if every entry of the bucket is in use by the running simulation
+     */
+    int insert(long black, long white, boolean blackMovedLast, int stamp, int searchStart) {
+        long key = ReversiBitboard.hash(black, white, blackMovedLast);
+        int first = bucketStart(key);
+        int victim = -1;
+        for (int i = first; i < first + WAYS; i++) {
+            if (keys[i] == 0) {
+                victim = i;
+                size++;
+                break;
+            }
+            if (lastUsed[i] == stamp) {
+                continue;
+            }
+            if (victim == -1 || isBetterVictim(i, victim, searchStart)) {
+                victim = i;
+            }
+        }
+        if (victim == -1) {
+            return -1;
+        }
+        if (keys[victim] != 0) {
+            replacements++;
+        }
+
+        keys[victim] = key;
+        blackDiscs[victim] = black;
+        whiteDiscs[victim] = white;
+        blackMoved[victim] = blackMovedLast;
+        blackScores[victim] = 0;
+        visits[victim] = 0;
+        lastUsed[victim] = stamp;
+        return victim;
+    }
+
+    private boolean isBetterVictim(int candidate, int victim, int searchStart) {
+        boolean candidateStale = lastUsed[candidate] < searchStart;
+        boolean victimStale = lastUsed[victim] < searchStart;
+        if (candidateStale != victimStale) {
+            return candidateStale;
+        }
+        return visits[candidate] < visits[victim];
+    }
+
+    private int bucketStart(long key) {
+        return ((int) (key ^ (key >>> 32)) & bucketMask) * WAYS;
+    }
+
+    /**
+     * Adds one simulation result to an entry
+     * @param blackScore The result for black (1 win, 0.5 draw, 0 loss)
+     */
+    void update(int index, double blackScore, int stamp) {
+        visits[index]++;
+        blackScores[index] += blackScore;
+        lastUsed[index] = stamp;
+    }
+
+    void touch(int index, int stamp) {
+        lastUsed[index] = stamp;
+    }
+
+    int getVisits(int index) {
+        return visits[index];
+    }
+
+    /**
+     * Gets the average result of an entry for the given player
+     */
+    double getWinRate(int index, char player) {
+        double blackRate = blackScores[index] / visits[index];
+        return player == 'B' ? blackRate : 1.0 - blackRate;
+    }
+
+    void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(visits, 0);
+        Arrays.fill(lastUsed, 0);
+        size = 0;
+        replacements = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return keys.length;
+    }
+
+    long getReplacements() {
+        return replacements;
+    }
+
+    long memoryBytes() {
+        return (long) keys.length * BYTES_PER_ENTRY;
+    }
+}
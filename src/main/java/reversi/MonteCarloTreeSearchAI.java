@@ -3,17 +3,164 @@ package reversi;
 import framework.ai.AbstractReversiAI;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * Monte Carlo Tree Search AI implementation for Reversi.
  * Uses MCTS algorithm to find the best move by simulating random games.
+ * Every node caches the position it represents as two bitboards, so expansion and
+ * playouts always start from the real state of that node.
+ * Optionally uses RAVE (all-moves-as-first) statistics to speed up convergence,
+ * heuristic (heavy) playouts and progressive bias from the static evaluation.
+ * In transposition mode the nodes are positions in a fixed-size hash table instead of a
+ * tree, so all move orders that reach a position share its statistics.
+ * With the solver enabled (tree mode), game results that are already decided are proven
+ * and propagated up the tree, so no simulations are wasted on them.
+ * The tree size is capped; when the cap is reached the search either stops expanding
+ * or recycles the least visited subtrees.
+ * For very long analysis runs the tree can be kept off the Java heap ({@link OffHeapMCTSTree}),
+ * so its size does not add to garbage collection work.
+ * All randomness comes from streams split from one master generator. With a fixed seed the
+ * same settings and thread count give the same trees and moves. With several threads every
+ * worker searches its own tree (root parallelization) and the root visits are summed.
+ * In hybrid mode the leaves are also (or only) scored by a shallow alpha-beta search with the
+ * evaluation of {@link ReversiMinimax}, mapped to a win probability.
+ * With leaf parallelization (tree mode) every leaf gets a batch of playouts from a
+ * {@link PlayoutEngine}, which uses the Vector API when it is available.
  */
 public class MonteCarloTreeSearchAI extends AbstractReversiAI {
     private static final int SIMULATIONS = 1000; // Number of simulations per move
     private static final double EXPLORATION_CONSTANT = Math.sqrt(2);
-    private static final Random random = new Random();
+    private static final double RAVE_EXPLORATION_CONSTANT = 0.3; // AMAF values already explore
+    private static final double DEFAULT_RAVE_EQUIVALENCE = 500;
+    private static final double HEURISTIC_SCALE = 100.0; // Positional score of one corner
+    private static final int DEFAULT_TRANSPOSITION_ENTRIES = 1 << 18;
+    private static final int MAX_GAME_LENGTH = 64;
+    private static final int DEFAULT_MAX_NODES = 500_000;
+    // Rough heap size of one node: the object itself, its (mostly empty) child list and its slot in the parent's list
+    private static final int ESTIMATED_BYTES_PER_NODE = 120;
+    private static final int MAX_CHILDREN = 32;             // Upper bound for one expansion
+    private static final double RECYCLE_TARGET = 0.75;      // Recycling frees nodes until this fraction of the cap
+    // Evaluation score that maps to a win probability of about 73% (logistic fit against playout results)
+    private static final double EVALUATION_SCALE = 300.0;
+
+    // Proven results for the MCTS-Solver, from the perspective of the node's player
+    private static final byte UNPROVEN = 0;
+    private static final byte PROVEN_WIN = 1;
+    private static final byte PROVEN_LOSS = 2;
+    private static final byte PROVEN_DRAW = 3;
+
+    // Per-square playout weights (positional weight shifted to be at least 1)
+    private static final int[] PLAYOUT_WEIGHTS = new int[64];
+    // Flattened positional weights for the bitboard evaluation
+    private static final int[] SQUARE_WEIGHTS = new int[64];
+    private static final long CORNER_MASK;
+    // For each corner square: the X- and C-squares next to it
+    private static final long[] CORNER_NEIGHBOURS = new long[64];
+
+    static {
+        long corners = 0L;
+        for (int square = 0; square < 64; square++) {
+            int row = square / BOARD_SIZE;
+            int col = square % BOARD_SIZE;
+            SQUARE_WEIGHTS[square] = POSITION_WEIGHTS[row][col];
+            PLAYOUT_WEIGHTS[square] = Math.max(1, POSITION_WEIGHTS[row][col] + 21);
+            if (CORNERS[row][col]) {
+                corners |= 1L << square;
+            }
+            if (ADJACENT_TO_CORNERS[row][col]) {
+                int cornerRow = row < BOARD_SIZE / 2 ? 0 : BOARD_SIZE - 1;
+                int cornerCol = col < BOARD_SIZE / 2 ? 0 : BOARD_SIZE - 1;
+                CORNER_NEIGHBOURS[cornerRow * BOARD_SIZE + cornerCol] |= 1L << square;
+            }
+        }
+        CORNER_MASK = corners;
+    }
+
+    /**
+     * What the tree search does when the node cap is reached
+     */
+    public enum NodeCapPolicy {
+        /** Keep simulating from the current leaves without adding nodes */
+        STOP_EXPANDING,
+        /** Drop the subtrees of the least visited nodes and keep expanding */
+        RECYCLE
+    }
+
+    /**
+     * Move selection used during playouts
+     */
+    public enum PlayoutPolicy {
+        /** Uniformly random legal moves */
+        RANDOM,
+        /** Take corners when possible, otherwise weighted random by square, avoiding squares next to empty corners */
+        HEAVY
+    }
+
+    /**
+     * Schedules for blending RAVE values with the normal UCB value.
+     * The weight of the RAVE value (beta) starts at 1 and decreases as a node gets more visits.
+     */
+    public enum RaveSchedule {
+        /** beta = sqrt(k / (3n + k)), with k the number of visits where both values weigh equally */
+        HAND_SELECTED,
+        /** beta = n' / (n + n' + 4b^2 n n'), with b the estimated RAVE bias (Gelly and Silver) */
+        MINIMUM_MSE
+    }
+
+    private int simulations = SIMULATIONS;
+    private double explorationConstant = EXPLORATION_CONSTANT;
+    private boolean useRave = false;
+    private RaveSchedule raveSchedule = RaveSchedule.HAND_SELECTED;
+    private double raveParameter = DEFAULT_RAVE_EQUIVALENCE;
+    private PlayoutPolicy playoutPolicy = PlayoutPolicy.RANDOM;
+    private double progressiveBias = 0.0;
+    private boolean useTranspositions = false;
+    private int transpositionTableSize = DEFAULT_TRANSPOSITION_ENTRIES;
+    private boolean useSolver = false;
+    private int maxNodes = DEFAULT_MAX_NODES;
+    private NodeCapPolicy nodeCapPolicy = NodeCapPolicy.RECYCLE;
+    private boolean useOffHeapTree = false;
+    private int threads = 1;
+    private double hybridMix = 0.0;
+    private int hybridDepth = 1;
+    private long timeLimitMillis = 0;
+    private long deadline;
+    private int playoutBatch = 1;
+
+    // Leaf parallelization: engine and reusable batch arrays, created on first use
+    private PlayoutEngine playoutEngine;
+    private long[] batchBlack;
+    private long[] batchWhite;
+    private boolean[] batchBlackToMove;
+    private int leafVisits = 1; // Number of playouts behind the last leaf score
+    private boolean seeded = false;
+    private long seed;
+
+    // Every search splits its random stream(s) from the master, in a fixed order
+    private SplittableRandom masterRandom = new SplittableRandom();
+    private SplittableRandom random;
+    private MonteCarloTreeSearchAI[] workers = new MonteCarloTreeSearchAI[0];
+    private final int[] rootVisits = new int[64]; // Visits per root move of the last search
+
+    // Statistics of the last search
+    private int simulationsRun;
+    private byte rootResult = UNPROVEN;
+    private int nodeCount;
+    private int peakNodeCount;
+    private int recycledNodes;
+
+    // Transposition mode: the table is kept between moves so earlier results are reused
+    private MCTSTranspositionTable transpositions;
+    private int simulationStamp = 0;
+    private final int[] path = new int[MAX_GAME_LENGTH + 1];
+
+    // Squares played by each colour during the last simulation (tree part and playout)
+    private long playedByBlack;
+    private long playedByWhite;
 
     /**
      * Represents a node in the Monte Carlo search tree
@@ -21,234 +168,1122 @@ public class MonteCarloTreeSearchAI extends AbstractReversiAI {
     private static class MCTSNode {
         int row;
         int col;
-        char player;
-        int wins = 0;
+        char player;        // Player who made the move leading to this node
+        long black;         // Black discs after this node's move
+        long white;         // White discs after this node's move
+        double wins = 0;    // Wins from the perspective of this node's player
         int visits = 0;
+        double amafWins = 0; // RAVE: wins when this move was played later in a simulation
+        int amafVisits = 0;
+        double heuristic;    // Static evaluation for this node's player, roughly -1 to 1
+        byte proven = UNPROVEN; // Solver: proven result for this node's player
         MCTSNode parent;
         List<MCTSNode> children = new ArrayList<>();
 
-        MCTSNode(int row, int col, char player, MCTSNode parent) {
+        MCTSNode(int row, int col, char player, long black, long white, MCTSNode parent) {
             this.row = row;
             this.col = col;
             this.player = player;
+            this.black = black;
+            this.white = white;
             this.parent = parent;
+            long own = player == 'B' ? black : white;
+            long opp = player == 'B' ? white : black;
+            this.heuristic = positionalScore(own, opp) / HEURISTIC_SCALE;
         }
 
         /**
          * Calculates the UCB1 (Upper Confidence Bound) value for this node
          */
-        double getUCB1() {
+        double getUCB1(double exploration) {
+            if (visits == 0) return Double.MAX_VALUE;
+            return wins / visits +
+                   exploration * Math.sqrt(Math.log(parent.visits) / visits);
+        }
+
+        /**
+         * Calculates the UCB value with the win rate blended with the AMAF win rate
+         * @param beta Weight of the AMAF win rate (0-1)
+         */
+        double getRaveValue(double beta, double exploration) {
             if (visits == 0) return Double.MAX_VALUE;
-            return (double) wins / visits +
-                   EXPLORATION_CONSTANT * Math.sqrt(Math.log(parent.visits) / visits);
+            double winRate = wins / visits;
+            if (amafVisits > 0) {
+                winRate = (1 - beta) * winRate + beta * (amafWins / amafVisits);
+            }
+            return winRate + exploration * Math.sqrt(Math.log(parent.visits) / visits);
         }
     }
 
+    public void setSimulations(int simulations) {
+        this.simulations = simulations;
+    }
+
+    public void setExplorationConstant(double explorationConstant) {
+        this.explorationConstant = explorationConstant;
+    }
+
+    public void setPlayoutPolicy(PlayoutPolicy policy) {
+        this.playoutPolicy = policy;
+    }
+
     /**
-     * Finds the best move for the AI player using Monte Carlo Tree Search
+     * Sets the weight of the progressive bias term: weight * heuristic / (visits + 1).
+     * The bias fades out as a node gets visits. 0 turns it off.
+     */
+    public void setProgressiveBias(double weight) {
+        this.progressiveBias = weight;
+    }
+
+    /**
+     * Turns RAVE on or off. Also switches to the matching default exploration constant,
+     * call setExplorationConstant afterwards to override it.
+     * RAVE is only used in tree mode.
+     */
+    public void setUseRave(boolean use) {
+        this.useRave = use;
+        this.explorationConstant = use ? RAVE_EXPLORATION_CONSTANT : EXPLORATION_CONSTANT;
+    }
+
+    /**
+     * Sets how RAVE values are blended with the normal win rate
+     * @param schedule The blending schedule
+     * @param parameter The equivalence k for HAND_SELECTED, or the bias b for MINIMUM_MSE
+     */
+    public void setRaveSchedule(RaveSchedule schedule, double parameter) {
+        this.raveSchedule = schedule;
+        this.raveParameter = parameter;
+    }
+
+    /**
+     * Turns transposition mode on or off
+     */
+    public void setUseTranspositions(boolean use) {
+        this.useTranspositions = use;
+    }
+
+    /**
+     * Sets the number of entries of the transposition table (rounded up to a power of two).
+     * The memory use is fixed at about {@value MCTSTranspositionTable#BYTES_PER_ENTRY} bytes per entry.
+     */
+    public void setTranspositionTableSize(int entries) {
+        this.transpositionTableSize = entries;
+        this.transpositions = null;
+    }
+
+    /**
+     * Turns the MCTS-Solver on or off (tree mode only).
+     * Terminal positions are marked as proven wins, losses or draws and the proofs are
+     * propagated up the tree. Proven losing moves are no longer selected and the search
+     * stops as soon as the root is proven.
+     */
+    public void setUseSolver(boolean use) {
+        this.useSolver = use;
+    }
+
+    /**
+     * Limits the number of tree nodes of one search, so several AI instances can share a JVM
+     * @param maxNodes The maximum number of nodes (about {@value #ESTIMATED_BYTES_PER_NODE} bytes each)
+     * @param policy What to do when the cap is reached
+     */
+    public void setNodeCap(int maxNodes, NodeCapPolicy policy) {
+        this.maxNodes = Math.max(MAX_CHILDREN + 1, maxNodes);
+        this.nodeCapPolicy = policy;
+    }
+
+    /**
+     * Turns the off-heap tree on or off. The nodes of one search are then stored in native
+     * memory ({@value OffHeapMCTSTree#NODE_SIZE} bytes each) that is freed when the search ends.
+     * The off-heap tree supports UCB1, progressive bias and both playout policies; RAVE and the
+     * solver are not used, and the node cap always stops expanding (nodes are never recycled).
+     * Transposition mode takes precedence when both are turned on.
+     */
+    public void setUseOffHeapTree(boolean use) {
+        this.useOffHeapTree = use;
+    }
+
+    /**
+     * Makes the search reproducible: the master generator restarts from this seed, so the
+     * same sequence of searches with the same settings and thread count gives identical results
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+        this.seeded = true;
+        this.masterRandom = new SplittableRandom(seed);
+    }
+
+    /**
+     * Sets the number of worker threads. With more than one thread every worker searches its own
+     * tree with an equal share of the simulations and the node cap, and the root visits are summed.
+     */
+    public void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Scores leaves with a shallow alpha-beta search next to (or instead of) the playout.
+     * The search value is mapped to a win probability and blended with the playout result.
+     * @param mix Weight of the alpha-beta value: 0 uses only playouts, 1 skips the playouts
+     * @param depth The search depth in plies
+     */
+    public void setHybrid(double mix, int depth) {
+        this.hybridMix = Math.max(0.0, Math.min(1.0, mix));
+        this.hybridDepth = Math.max(0, depth);
+    }
+
+    /**
+     * Limits the thinking time per move; the search stops at the time limit or after the
+     * simulations, whichever comes first. 0 turns the limit off.
+     * A seeded search is only reproducible without a time limit.
+     */
+    public void setTimeLimit(long millis) {
+        this.timeLimitMillis = Math.max(0, millis);
+    }
+
+    public long getTimeLimit() {
+        return timeLimitMillis;
+    }
+
+    /**
+     * Sets the number of playouts per leaf (leaf parallelization, tree mode only).
+     * A batch is played by {@link PlayoutEngine#create()} with uniformly random moves, so the
+     * playout policy does not apply, and RAVE only sees the moves in the tree.
+     * 1 turns batching off.
+     */
+    public void setPlayoutBatch(int size) {
+        this.playoutBatch = Math.max(1, size);
+    }
+
+    public int getNodeCap() {
+        return maxNodes;
+    }
+
+    /**
+     * Gets the highest number of tree nodes in use during the last search
+     */
+    public int getPeakNodeCount() {
+        return peakNodeCount;
+    }
+
+    /**
+     * Gets the estimated heap use of the tree at its peak during the last search
+     */
+    public long getEstimatedPeakMemoryBytes() {
+        if (useOffHeapTree) {
+            return (long) peakNodeCount * OffHeapMCTSTree.NODE_SIZE;
+        }
+        return (long) peakNodeCount * ESTIMATED_BYTES_PER_NODE;
+    }
+
+    /**
+     * Finds the best move with the default settings
      * @param game The current Reversi game
      * @param aiPlayer The AI player symbol ('B' or 'W')
      * @return An array [row, col] representing the best move, or null if no move available
      */
     public static int[] bestMove(Reversi game, char aiPlayer) {
+        return new MonteCarloTreeSearchAI().findBestMove(game, aiPlayer);
+    }
+
+    /**
+     * Finds the best move for the AI player using Monte Carlo Tree Search
+     * @param game The current Reversi game
+     * @param aiPlayer The AI player symbol ('B' or 'W')
+     * @return An array [row, col] representing the best move, or null if no move available
+     */
+    public int[] findBestMove(Reversi game, char aiPlayer) {
         long startTime = System.currentTimeMillis();
+        deadline = System.nanoTime() + timeLimitMillis * 1_000_000;
 
         if (!game.hasValidMove(aiPlayer)) {
-            System.out.println("[MCTS AI] No valid moves available for player " + aiPlayer);
+            if (verbose) {
+                System.out.println("[MCTS AI] No valid moves available for player " + aiPlayer);
+            }
             return null;
         }
 
-        MCTSNode root = new MCTSNode(-1, -1, aiPlayer, null);
+        long black = ReversiBitboard.fromBoard(game.getBord(), 'B');
+        long white = ReversiBitboard.fromBoard(game.getBord(), 'W');
+        int bestSquare;
+        if (threads > 1) {
+            bestSquare = searchParallel(black, white, aiPlayer);
+        } else {
+            random = masterRandom.split();
+            bestSquare = search(black, white, aiPlayer);
+        }
 
-        // Expand root with all valid moves
-        List<int[]> validMoves = getValidMovesAsArrays(game, aiPlayer);
-        for (int[] move : validMoves) {
-            root.children.add(new MCTSNode(move[0], move[1], aiPlayer, root));
+        if (bestSquare < 0) {
+            return null;
+        }
+
+        long endTime = System.currentTimeMillis();
+        long duration = endTime - startTime;
+
+        lastNodeCount = simulationsRun;
+
+        // Log AI move information
+        if (verbose) {
+            System.out.println("=== MCTS AI MOVE ===");
+            System.out.println("  Simulations: " + simulationsRun + "/" + simulations
+                    + (threads > 1 ? ", " + threads + " threads" : "") + (seeded ? ", seed " + seed : ""));
+            if (rootResult != UNPROVEN) {
+                // The root result is stored for the opponent (the root's player)
+                System.out.println("  Solver: position is a proven "
+                        + (rootResult == PROVEN_DRAW ? "draw" : rootResult == PROVEN_LOSS ? "win" : "loss"));
+            }
+            if (useRave && !useTranspositions && !useOffHeapTree) {
+                System.out.println("  RAVE: " + raveSchedule + " (" + raveParameter + ")");
+            }
+            System.out.println("  Playouts: " + playoutPolicy
+                    + (progressiveBias > 0 ? ", progressive bias " + progressiveBias : "")
+                    + (hybridMix > 0 ? ", alpha-beta depth " + hybridDepth + " weight " + hybridMix : "")
+                    + (playoutEngine != null && playoutBatch > 1 && !useTranspositions && !useOffHeapTree
+                            ? ", batches of " + playoutBatch + " (" + playoutEngine.getName() + ")" : ""));
+            if (!useTranspositions) {
+                System.out.println("  Nodes: peak " + peakNodeCount + "/" + maxNodes + " (~"
+                        + (getEstimatedPeakMemoryBytes() >> 10) + " KB"
+                        + (useOffHeapTree ? " off-heap" : "") + "), recycled " + recycledNodes);
+            }
+            if (useTranspositions && transpositions != null) {
+                System.out.println("  Transposition table: " + transpositions.size() + "/" + transpositions.capacity()
+                        + " entries, " + (transpositions.memoryBytes() >> 10) + " KB, "
+                        + transpositions.getReplacements() + " replacements");
+            }
+            System.out.println("  Time taken: " + duration + " ms");
+            System.out.println("====================");
+        }
+
+        return new int[]{bestSquare / BOARD_SIZE, bestSquare % BOARD_SIZE};
+    }
+
+    /**
+     * Runs one search in the configured mode with the current random stream
+     * @return The square of the chosen root move, or -1 if there is none
+     */
+    private int search(long black, long white, char aiPlayer) {
+        if (useTranspositions) {
+            return searchGraph(black, white, aiPlayer);
+        }
+        if (useOffHeapTree) {
+            return searchOffHeap(black, white, aiPlayer);
+        }
+        return searchTree(black, white, aiPlayer);
+    }
+
+    /**
+     * Runs one search per worker thread and merges the root statistics.
+     * The workers get their random streams in a fixed order and the merge does not depend on
+     * which worker finishes first, so a seeded search is reproducible.
+     * @return The square with the most visits over all workers (a proven win first), or -1
+     */
+    private int searchParallel(long black, long white, char aiPlayer) {
+        if (workers.length != threads) {
+            workers = new MonteCarloTreeSearchAI[threads];
+            for (int i = 0; i < threads; i++) {
+                workers[i] = new MonteCarloTreeSearchAI();
+            }
         }
 
-        // Run simulations
-        for (int i = 0; i < SIMULATIONS; i++) {
-            Reversi gameCopy = copyGame(game);
+        int[] bestSquares = new int[threads];
+        Thread[] running = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            MonteCarloTreeSearchAI worker = workers[i];
+            copySettingsTo(worker);
+            worker.simulations = simulations / threads + (i < simulations % threads ? 1 : 0);
+            worker.random = masterRandom.split();
+            int index = i;
+            running[i] = new Thread(() -> bestSquares[index] = worker.search(black, white, aiPlayer),
+                    "MCTS-worker-" + i);
+            running[i].start();
+        }
+        try {
+            for (Thread thread : running) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            // Cancelled: stop the workers as well and wait for them, so they can be reused by the next search
+            for (Thread thread : running) {
+                thread.interrupt();
+            }
+            for (Thread thread : running) {
+                while (thread.isAlive()) {
+                    try {
+                        thread.join();
+                    } catch (InterruptedException ignored) {
+                        // Keep waiting; the workers stop within one simulation
+                    }
+                }
+            }
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+
+        Arrays.fill(rootVisits, 0);
+        simulationsRun = 0;
+        rootResult = UNPROVEN;
+        nodeCount = 0;
+        peakNodeCount = 0;
+        recycledNodes = 0;
+        int provenSquare = -1;
+        for (int i = 0; i < threads; i++) {
+            MonteCarloTreeSearchAI worker = workers[i];
+            for (int square = 0; square < 64; square++) {
+                rootVisits[square] += worker.rootVisits[square];
+            }
+            simulationsRun += worker.simulationsRun;
+            nodeCount += worker.nodeCount;
+            peakNodeCount += worker.peakNodeCount;
+            recycledNodes += worker.recycledNodes;
+            if (rootResult == UNPROVEN && worker.rootResult != UNPROVEN) {
+                rootResult = worker.rootResult;
+                provenSquare = bestSquares[i];
+            }
+        }
+        if (rootResult == PROVEN_LOSS) {
+            return provenSquare; // Proven win for the AI
+        }
+
+        int bestSquare = -1;
+        for (int square = 0; square < 64; square++) {
+            if (rootVisits[square] > 0 && (bestSquare < 0 || rootVisits[square] > rootVisits[bestSquare])) {
+                bestSquare = square;
+            }
+        }
+        return bestSquare >= 0 ? bestSquare : bestSquares[0];
+    }
+
+    /**
+     * Copies the search settings to a worker; its node cap is this AI's cap divided by the threads
+     */
+    private void copySettingsTo(MonteCarloTreeSearchAI worker) {
+        worker.explorationConstant = explorationConstant;
+        worker.useRave = useRave;
+        worker.raveSchedule = raveSchedule;
+        worker.raveParameter = raveParameter;
+        worker.playoutPolicy = playoutPolicy;
+        worker.progressiveBias = progressiveBias;
+        worker.useTranspositions = useTranspositions;
+        if (worker.transpositionTableSize != transpositionTableSize) {
+            worker.setTranspositionTableSize(transpositionTableSize);
+        }
+        worker.useSolver = useSolver;
+        worker.maxNodes = Math.max(MAX_CHILDREN + 1, maxNodes / threads);
+        worker.nodeCapPolicy = nodeCapPolicy;
+        worker.useOffHeapTree = useOffHeapTree;
+        worker.hybridMix = hybridMix;
+        worker.hybridDepth = hybridDepth;
+        worker.playoutBatch = playoutBatch;
+        worker.timeLimitMillis = timeLimitMillis;
+        worker.deadline = deadline;
+    }
+
+    /**
+     * Runs the simulations on a tree of MCTSNodes
+     * @return The square of the most visited root move, or -1 if there is none
+     */
+    private int searchTree(long black, long white, char aiPlayer) {
+        // The root holds the current position; its "player" is the one who moved last
+        MCTSNode root = new MCTSNode(-1, -1, getOpponent(aiPlayer), black, white, null);
+        nodeCount = 1;
+        peakNodeCount = 1;
+        recycledNodes = 0;
+
+        // Expand root with all valid moves
+        addChildren(root);
+
+        // Run simulations, with the solver until the root is proven
+        simulationsRun = 0;
+        while (simulationsRun < simulations && root.proven == UNPROVEN && !isOutOfTime()) {
+            simulationsRun++;
+            boolean canExpand = nodeCount + MAX_CHILDREN <= maxNodes;
+            if (!canExpand && nodeCapPolicy == NodeCapPolicy.RECYCLE) {
+                recycleSubtrees(root);
+                canExpand = nodeCount + MAX_CHILDREN <= maxNodes;
+            }
             MCTSNode node = selectNode(root);
 
-            if (node.visits > 0 && !isTerminal(gameCopy, node)) {
-                node = expandNode(gameCopy, node);
+            if (canExpand && node.proven == UNPROVEN && node.visits > 0 && !isTerminal(node)) {
+                node = expandNode(node);
             }
 
-            int result = simulate(gameCopy, node, aiPlayer);
-            backpropagate(node, result);
+            double aiScore;
+            if (useSolver && node.proven == UNPROVEN && isTerminal(node)) {
+                node.proven = terminalResult(node);
+                propagateProof(node.parent);
+            }
+            if (node.proven != UNPROVEN) {
+                // Decided positions need no playout
+                playedByBlack = 0L;
+                playedByWhite = 0L;
+                leafVisits = 1;
+                aiScore = node.proven == PROVEN_DRAW ? 0.5
+                        : (node.proven == PROVEN_WIN) == (node.player == aiPlayer) ? 1.0 : 0.0;
+            } else {
+                aiScore = evaluateLeaf(node.black, node.white, getOpponent(node.player) == 'B', aiPlayer,
+                        playoutBatch);
+            }
+            backpropagate(node, aiScore, aiPlayer);
         }
+        rootResult = root.proven;
 
-        // Select the move with the highest visit count
+        // Select the move with the highest visit count, proven wins first and proven losses last
+        Arrays.fill(rootVisits, 0);
+        for (MCTSNode child : root.children) {
+            rootVisits[child.row * BOARD_SIZE + child.col] = child.proven == PROVEN_LOSS ? 0 : child.visits;
+        }
         MCTSNode bestNode = null;
         int maxVisits = -1;
         for (MCTSNode child : root.children) {
-            if (child.visits > maxVisits) {
-                maxVisits = child.visits;
+            if (child.proven == PROVEN_WIN) {
+                bestNode = child;
+                break;
+            }
+            int visits = child.proven == PROVEN_LOSS ? -1 : child.visits;
+            if (visits > maxVisits || bestNode == null) {
+                maxVisits = visits;
                 bestNode = child;
             }
         }
 
-        if (bestNode == null) {
-            return null;
+        return bestNode == null ? -1 : bestNode.row * BOARD_SIZE + bestNode.col;
+    }
+
+    /**
+     * Frees nodes by removing the subtrees below the least visited nodes, until the tree
+     * is back at RECYCLE_TARGET of the cap. The collapsed nodes keep their own statistics
+     * and become leaves again, so they can be expanded later. Called between simulations,
+     * so no selection path is cut.
+     */
+    private void recycleSubtrees(MCTSNode root) {
+        List<MCTSNode> internalNodes = new ArrayList<>();
+        List<MCTSNode> stack = new ArrayList<>(root.children);
+        while (!stack.isEmpty()) {
+            MCTSNode node = stack.remove(stack.size() - 1);
+            if (!node.children.isEmpty()) {
+                internalNodes.add(node);
+                stack.addAll(node.children);
+            }
         }
+        // Children have fewer visits than their parents, so subtrees are collapsed bottom-up
+        internalNodes.sort(Comparator.comparingInt(node -> node.visits));
 
-        long endTime = System.currentTimeMillis();
-        long duration = endTime - startTime;
+        int target = (int) (maxNodes * RECYCLE_TARGET);
+        for (MCTSNode node : internalNodes) {
+            if (nodeCount <= target) {
+                break;
+            }
+            int freed = countSubtree(node) - 1;
+            node.children = new ArrayList<>();
+            nodeCount -= freed;
+            recycledNodes += freed;
+        }
+    }
 
-        // Log AI move information
-        System.out.println("=== MCTS AI MOVE ===");
-        System.out.println("  Simulations: " + SIMULATIONS);
-        System.out.println("  Time taken: " + duration + " ms");
-        System.out.println("====================");
+    private static int countSubtree(MCTSNode node) {
+        int count = 1;
+        for (MCTSNode child : node.children) {
+            count += countSubtree(child);
+        }
+        return count;
+    }
+
+    /**
+     * Determines the result of a finished game for the node's player
+     */
+    private static byte terminalResult(MCTSNode node) {
+        int own = Long.bitCount(node.player == 'B' ? node.black : node.white);
+        int opp = Long.bitCount(node.player == 'B' ? node.white : node.black);
+        return own > opp ? PROVEN_WIN : own < opp ? PROVEN_LOSS : PROVEN_DRAW;
+    }
+
+    /**
+     * Propagates proofs up the tree, starting at the given node.
+     * A node is proven when one of its children is a proven win for the player to move,
+     * or when all children are proven (then the best of them decides).
+     */
+    private static void propagateProof(MCTSNode node) {
+        while (node != null && node.proven == UNPROVEN && !node.children.isEmpty()) {
+            char mover = node.children.get(0).player;
+            byte best = PROVEN_LOSS;
+            boolean allProven = true;
+            for (MCTSNode child : node.children) {
+                if (child.proven == PROVEN_WIN) {
+                    best = PROVEN_WIN;
+                    break;
+                }
+                if (child.proven == UNPROVEN) {
+                    allProven = false;
+                } else if (child.proven == PROVEN_DRAW) {
+                    best = PROVEN_DRAW;
+                }
+            }
+            if (best != PROVEN_WIN && !allProven) {
+                return;
+            }
 
-        return new int[]{bestNode.row, bestNode.col};
+            // The result for the mover, seen from the node's player (the same player after a pass)
+            if (mover == node.player || best == PROVEN_DRAW) {
+                node.proven = best;
+            } else {
+                node.proven = best == PROVEN_WIN ? PROVEN_LOSS : PROVEN_WIN;
+            }
+            node = node.parent;
+        }
+    }
+
+    /**
+     * Runs the simulations on an off-heap tree that lives only for this search
+     * @return The square of the most visited root move, or -1 if there is none
+     */
+    private int searchOffHeap(long black, long white, char aiPlayer) {
+        try (OffHeapMCTSTree tree = new OffHeapMCTSTree(maxNodes)) {
+            int root = tree.allocate(1);
+            tree.init(root, -1, -1, getOpponent(aiPlayer), black, white, 0);
+            addChildren(tree, root);
+            recycledNodes = 0;
+
+            simulationsRun = 0;
+            while (simulationsRun < simulations && !isOutOfTime()) {
+                simulationsRun++;
+                int node = root;
+                while (tree.childCount(node) > 0) {
+                    node = selectChild(tree, node);
+                }
+
+                if (tree.visits(node) > 0 && !ReversiBitboard.isGameOver(tree.black(node), tree.white(node))
+                        && addChildren(tree, node)) {
+                    node = tree.firstChild(node) + random.nextInt(tree.childCount(node));
+                }
+
+                double aiScore = evaluateLeaf(tree.black(node), tree.white(node),
+                        getOpponent(tree.player(node)) == 'B', aiPlayer, 1);
+                for (; node >= 0; node = tree.parent(node)) {
+                    tree.update(node, tree.player(node) == aiPlayer ? aiScore : 1.0 - aiScore);
+                }
+            }
+            nodeCount = tree.size();
+            peakNodeCount = nodeCount;
+
+            // Select the move with the highest visit count
+            Arrays.fill(rootVisits, 0);
+            int bestSquare = -1;
+            int maxVisits = -1;
+            int first = tree.firstChild(root);
+            for (int child = first; child < first + tree.childCount(root); child++) {
+                rootVisits[tree.square(child)] = tree.visits(child);
+                if (tree.visits(child) > maxVisits) {
+                    maxVisits = tree.visits(child);
+                    bestSquare = tree.square(child);
+                }
+            }
+            return bestSquare;
+        }
+    }
+
+    /**
+     * Selects the child of an off-heap node with the highest UCB1 value (plus progressive bias)
+     */
+    private int selectChild(OffHeapMCTSTree tree, int node) {
+        double logParentVisits = Math.log(tree.visits(node));
+        int first = tree.firstChild(node);
+        int best = first;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int child = first; child < first + tree.childCount(node); child++) {
+            int visits = tree.visits(child);
+            if (visits == 0) {
+                return child;
+            }
+            double value = tree.wins(child) / visits + explorationConstant * Math.sqrt(logParentVisits / visits);
+            if (progressiveBias != 0) {
+                value += progressiveBias * tree.heuristic(child) / (visits + 1);
+            }
+            if (value > bestValue) {
+                bestValue = value;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Adds a child for every valid move of an off-heap node, stored as one block
+     * @return false if the node has no moves or the tree is full
+     */
+    private static boolean addChildren(OffHeapMCTSTree tree, int node) {
+        long black = tree.black(node);
+        long white = tree.white(node);
+        char nextPlayer = nextPlayer(tree.player(node), black, white);
+        long own = nextPlayer == 'B' ? black : white;
+        long opp = nextPlayer == 'B' ? white : black;
+
+        long moves = ReversiBitboard.legalMoves(own, opp);
+        int count = Long.bitCount(moves);
+        int first = count == 0 ? -1 : tree.allocate(count);
+        if (first < 0) {
+            return false;
+        }
+        for (int child = first; moves != 0; child++) {
+            int square = Long.numberOfTrailingZeros(moves);
+            moves &= moves - 1;
+
+            long flipped = ReversiBitboard.flips(own, opp, square);
+            long newOwn = own | flipped | (1L << square);
+            long newOpp = opp & ~flipped;
+            tree.init(child, node, square, nextPlayer,
+                    nextPlayer == 'B' ? newOwn : newOpp, nextPlayer == 'B' ? newOpp : newOwn,
+                    positionalScore(newOwn, newOpp) / HEURISTIC_SCALE);
+        }
+        tree.setChildren(node, first, count);
+        return true;
+    }
+
+    /**
+     * Runs the simulations on the transposition table.
+     * Each simulation walks down from the root, computing child positions with the bitboard
+     * helpers and looking them up in the table. The first unexplored child that is reached
+     * is stored and a playout is started from it.
+     * Like tree nodes, entries are keyed by the discs plus the player who moved last.
+     * @return The square of the most visited root move, or -1 if there is none
+     */
+    private int searchGraph(long black, long white, char aiPlayer) {
+        if (transpositions == null) {
+            transpositions = new MCTSTranspositionTable(transpositionTableSize);
+        }
+        int searchStart = simulationStamp + 1;
+        boolean rootBlackMoves = aiPlayer == 'B';
+
+        simulationsRun = 0;
+        while (simulationsRun < simulations && !isOutOfTime()) {
+            simulationsRun++;
+            int stamp = ++simulationStamp;
+            // Like the tree root, the root entry is keyed with the opponent as last mover
+            int entry = transpositions.find(black, white, !rootBlackMoves);
+            if (entry < 0) {
+                entry = transpositions.insert(black, white, !rootBlackMoves, stamp, searchStart);
+            }
+            transpositions.touch(entry, stamp);
+            int depth = 0;
+            path[depth++] = entry;
+
+            long b = black;
+            long w = white;
+            boolean blackMoves = rootBlackMoves;
+            while (true) {
+                char mover = blackMoves ? 'B' : 'W';
+                long own = blackMoves ? b : w;
+                long opp = blackMoves ? w : b;
+                long moves = ReversiBitboard.legalMoves(own, opp);
+                if (moves == 0) {
+                    break; // Game over
+                }
+
+                // Score the explored children, count the unexplored ones
+                double logParentVisits = Math.log(Math.max(1, transpositions.getVisits(entry)));
+                int unexplored = 0;
+                int bestChild = -1;
+                int bestSquare = -1;
+                double bestValue = Double.NEGATIVE_INFINITY;
+                for (long m = moves; m != 0; m &= m - 1) {
+                    int square = Long.numberOfTrailingZeros(m);
+                    long flipped = ReversiBitboard.flips(own, opp, square);
+                    long childOwn = own | flipped | (1L << square);
+                    long childOpp = opp & ~flipped;
+                    long childBlack = blackMoves ? childOwn : childOpp;
+                    long childWhite = blackMoves ? childOpp : childOwn;
+
+                    int child = transpositions.find(childBlack, childWhite, blackMoves);
+                    if (child < 0 || transpositions.getVisits(child) == 0) {
+                        unexplored++;
+                        continue;
+                    }
+                    int childVisits = transpositions.getVisits(child);
+                    double value = transpositions.getWinRate(child, mover)
+                            + explorationConstant * Math.sqrt(logParentVisits / childVisits);
+                    if (progressiveBias != 0) {
+                        value += progressiveBias * positionalScore(childOwn, childOpp) / HEURISTIC_SCALE
+                                / (childVisits + 1);
+                    }
+                    if (value > bestValue) {
+                        bestValue = value;
+                        bestChild = child;
+                        bestSquare = square;
+                    }
+                }
+
+                if (unexplored > 0) {
+                    // Expand a random unexplored child and start the playout there
+                    int pick = random.nextInt(unexplored);
+                    for (long m = moves; m != 0; m &= m - 1) {
+                        int square = Long.numberOfTrailingZeros(m);
+                        long flipped = ReversiBitboard.flips(own, opp, square);
+                        long childOwn = own | flipped | (1L << square);
+                        long childOpp = opp & ~flipped;
+                        long childBlack = blackMoves ? childOwn : childOpp;
+                        long childWhite = blackMoves ? childOpp : childOwn;
+                        int child = transpositions.find(childBlack, childWhite, blackMoves);
+                        if (child >= 0 && transpositions.getVisits(child) > 0) {
+                            continue;
+                        }
+                        if (pick-- == 0) {
+                            if (child < 0) {
+                                child = transpositions.insert(childBlack, childWhite, blackMoves, stamp, searchStart);
+                            }
+                            if (child >= 0) {
+                                path[depth++] = child;
+                            }
+                            b = childBlack;
+                            w = childWhite;
+                            blackMoves = nextPlayer(mover, b, w) == 'B';
+                            break;
+                        }
+                    }
+                    break;
+                }
+
+                // All children explored: follow the best one
+                long flipped = ReversiBitboard.flips(own, opp, bestSquare);
+                long childOwn = own | flipped | (1L << bestSquare);
+                long childOpp = opp & ~flipped;
+                b = blackMoves ? childOwn : childOpp;
+                w = blackMoves ? childOpp : childOwn;
+                blackMoves = nextPlayer(mover, b, w) == 'B';
+                entry = bestChild;
+                transpositions.touch(entry, stamp);
+                path[depth++] = entry;
+            }
+
+            double aiScore = evaluateLeaf(b, w, blackMoves, aiPlayer, 1);
+            double blackScore = aiPlayer == 'B' ? aiScore : 1.0 - aiScore;
+            for (int d = 0; d < depth; d++) {
+                transpositions.update(path[d], blackScore, stamp);
+            }
+        }
+
+        // Select the root move whose position has the most visits
+        Arrays.fill(rootVisits, 0);
+        int bestSquare = -1;
+        int maxVisits = -1;
+        long own = rootBlackMoves ? black : white;
+        long opp = rootBlackMoves ? white : black;
+        for (long m = ReversiBitboard.legalMoves(own, opp); m != 0; m &= m - 1) {
+            int square = Long.numberOfTrailingZeros(m);
+            long flipped = ReversiBitboard.flips(own, opp, square);
+            long childOwn = own | flipped | (1L << square);
+            long childOpp = opp & ~flipped;
+            long childBlack = rootBlackMoves ? childOwn : childOpp;
+            long childWhite = rootBlackMoves ? childOpp : childOwn;
+            int child = transpositions.find(childBlack, childWhite, rootBlackMoves);
+            int visits = child < 0 ? 0 : transpositions.getVisits(child);
+            rootVisits[square] = visits;
+            if (visits > maxVisits) {
+                maxVisits = visits;
+                bestSquare = square;
+            }
+        }
+        return bestSquare;
     }
 
     /**
      * Selects the most promising node to explore using UCB1
      */
-    private static MCTSNode selectNode(MCTSNode node) {
-        while (!node.children.isEmpty()) {
+    private MCTSNode selectNode(MCTSNode node) {
+        while (!node.children.isEmpty() && node.proven == UNPROVEN) {
             MCTSNode best = null;
-            double bestValue = -1;
+            double bestValue = Double.NEGATIVE_INFINITY;
 
             for (MCTSNode child : node.children) {
-                double value = child.getUCB1();
+                if (child.proven == PROVEN_LOSS) {
+                    continue; // Never choose a move that is proven to lose
+                }
+                double value = useRave
+                        ? child.getRaveValue(raveBeta(child), explorationConstant)
+                        : child.getUCB1(explorationConstant);
+                if (progressiveBias != 0) {
+                    value += progressiveBias * child.heuristic / (child.visits + 1);
+                }
                 if (value > bestValue) {
                     bestValue = value;
                     best = child;
                 }
             }
+            if (best == null) {
+                break;
+            }
             node = best;
         }
         return node;
     }
 
+    /**
+     * Calculates the weight of the AMAF value for a node using the configured schedule
+     */
+    private double raveBeta(MCTSNode node) {
+        if (raveSchedule == RaveSchedule.MINIMUM_MSE) {
+            double n = node.visits;
+            double amafN = node.amafVisits;
+            return amafN / (n + amafN + 4 * raveParameter * raveParameter * n * amafN);
+        }
+        return Math.sqrt(raveParameter / (3 * node.visits + raveParameter));
+    }
+
     /**
      * Expands a node by adding its children (valid moves)
      */
-    private static MCTSNode expandNode(Reversi game, MCTSNode node) {
-        // Apply the move for this node
-        if (node.row != -1 && node.col != -1) {
-            game.doMove(node.row, node.col, node.player);
+    private MCTSNode expandNode(MCTSNode node) {
+        addChildren(node);
+
+        if (!node.children.isEmpty()) {
+            return node.children.get(random.nextInt(node.children.size()));
         }
+        return node;
+    }
 
-        char nextPlayer = getOpponent(node.player);
+    /**
+     * Adds a child for every valid move in the node's position.
+     * If the opponent has to pass, the children are moves of the same player again.
+     */
+    private void addChildren(MCTSNode node) {
+        char nextPlayer = nextPlayer(node.player, node.black, node.white);
+        long own = nextPlayer == 'B' ? node.black : node.white;
+        long opp = nextPlayer == 'B' ? node.white : node.black;
+
+        long moves = ReversiBitboard.legalMoves(own, opp);
+        while (moves != 0) {
+            int square = Long.numberOfTrailingZeros(moves);
+            moves &= moves - 1;
 
-        // Add all valid moves as children
-        List<int[]> validMoves = getValidMovesAsArrays(game, nextPlayer);
-        for (int[] move : validMoves) {
-            node.children.add(new MCTSNode(move[0], move[1], nextPlayer, node));
+            long flipped = ReversiBitboard.flips(own, opp, square);
+            long newOwn = own | flipped | (1L << square);
+            long newOpp = opp & ~flipped;
+            long childBlack = nextPlayer == 'B' ? newOwn : newOpp;
+            long childWhite = nextPlayer == 'B' ? newOpp : newOwn;
+            node.children.add(new MCTSNode(square / BOARD_SIZE, square % BOARD_SIZE, nextPlayer,
+                    childBlack, childWhite, node));
+            nodeCount++;
         }
+        peakNodeCount = Math.max(peakNodeCount, nodeCount);
+    }
 
-        // If no valid moves for next player, check if current player can move
-        if (node.children.isEmpty() && game.hasValidMove(node.player)) {
-            List<int[]> currentPlayerMoves = getValidMovesAsArrays(game, node.player);
-            for (int[] move : currentPlayerMoves) {
-                node.children.add(new MCTSNode(move[0], move[1], node.player, node));
-            }
+    /**
+     * Determines who moves after {@code lastPlayer} in the given position.
+     * Returns the opponent unless the opponent has to pass.
+     */
+    private static char nextPlayer(char lastPlayer, long black, long white) {
+        char opponent = getOpponent(lastPlayer);
+        long own = opponent == 'B' ? black : white;
+        long opp = opponent == 'B' ? white : black;
+        if (ReversiBitboard.legalMoves(own, opp) == 0 && ReversiBitboard.legalMoves(opp, own) != 0) {
+            return lastPlayer;
         }
+        return opponent;
+    }
 
-        if (!node.children.isEmpty()) {
-            return node.children.get(random.nextInt(node.children.size()));
+    /**
+     * True when the time limit has passed or the search thread was interrupted (the search was cancelled)
+     */
+    private boolean isOutOfTime() {
+        return (timeLimitMillis > 0 && System.nanoTime() - deadline >= 0) || Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * Scores a leaf position with playouts, a shallow alpha-beta search or a blend of both
+     * @param batch The number of playouts; the score then counts as that many visits (leafVisits)
+     * @return The score for the AI player (1 win, 0.5 draw, 0 loss, or a win probability)
+     */
+    private double evaluateLeaf(long black, long white, boolean blackToMove, char aiPlayer, int batch) {
+        double aiScore = 0.0;
+        leafVisits = 1;
+        if (hybridMix < 1.0 && batch > 1) {
+            aiScore = (1.0 - hybridMix) * batchPlayouts(black, white, blackToMove, aiPlayer, batch);
+            leafVisits = batch;
+        } else if (hybridMix < 1.0) {
+            int result = simulate(black, white, blackToMove, aiPlayer);
+            aiScore = (1.0 - hybridMix) * (result == 1 ? 1.0 : result == 0 ? 0.5 : 0.0); // Half point for draw
+        } else {
+            playedByBlack = 0L;
+            playedByWhite = 0L;
         }
-        return node;
+        if (hybridMix > 0.0) {
+            long own = blackToMove ? black : white;
+            long opp = blackToMove ? white : black;
+            int value = ReversiMinimax.search(own, opp, hybridDepth, -Integer.MAX_VALUE, Integer.MAX_VALUE);
+            if ((blackToMove ? 'B' : 'W') != aiPlayer) {
+                value = -value;
+            }
+            aiScore += hybridMix / (1.0 + Math.exp(-value / EVALUATION_SCALE));
+        }
+        return aiScore;
     }
 
     /**
-     * Simulates a random game from the current position
-     * @return 1 if AI wins, 0 if draw, -1 if AI loses
+     * Plays a batch of random playouts from one position with the playout engine
+     * @return The average score for the AI player
      */
-    private static int simulate(Reversi game, MCTSNode node, char aiPlayer) {
-        // Apply the node's move
-        if (node.row != -1 && node.col != -1) {
-            game.doMove(node.row, node.col, node.player);
+    private double batchPlayouts(long black, long white, boolean blackToMove, char aiPlayer, int batch) {
+        if (playoutEngine == null) {
+            playoutEngine = PlayoutEngine.create();
+        }
+        if (batchBlack == null || batchBlack.length < batch) {
+            batchBlack = new long[batch];
+            batchWhite = new long[batch];
+            batchBlackToMove = new boolean[batch];
         }
+        Arrays.fill(batchBlack, 0, batch, black);
+        Arrays.fill(batchWhite, 0, batch, white);
+        Arrays.fill(batchBlackToMove, 0, batch, blackToMove);
+        playoutEngine.playout(batchBlack, batchWhite, batchBlackToMove, batch, random);
+
+        double total = 0.0;
+        for (int i = 0; i < batch; i++) {
+            int aiCount = Long.bitCount(aiPlayer == 'B' ? batchBlack[i] : batchWhite[i]);
+            int opponentCount = Long.bitCount(aiPlayer == 'B' ? batchWhite[i] : batchBlack[i]);
+            total += aiCount > opponentCount ? 1.0 : aiCount == opponentCount ? 0.5 : 0.0;
+        }
+        playedByBlack = 0L;
+        playedByWhite = 0L;
+        return total / batch;
+    }
 
-        char currentPlayer = getOpponent(node.player);
+    /**
+     * Simulates a game from the given position using the playout policy
+     * @return 1 if AI wins, 0 if draw, -1 if AI loses
+     */
+    private int simulate(long black, long white, boolean blackToMove, char aiPlayer) {
         int passCount = 0;
+        playedByBlack = 0L;
+        playedByWhite = 0L;
 
-        // Play random moves until game ends
-        while (!game.isWin('B') && !game.isWin('W') && !game.isDraw() && passCount < 2) {
-            List<int[]> validMoves = getValidMovesAsArrays(game, currentPlayer);
+        // Play random moves until both players have to pass
+        while (passCount < 2) {
+            long own = blackToMove ? black : white;
+            long opp = blackToMove ? white : black;
+            long moves = ReversiBitboard.legalMoves(own, opp);
 
-            if (validMoves.isEmpty()) {
+            if (moves == 0) {
                 passCount++;
-                currentPlayer = getOpponent(currentPlayer);
+                blackToMove = !blackToMove;
                 continue;
             }
 
             passCount = 0;
-            int[] move = validMoves.get(random.nextInt(validMoves.size()));
-            game.doMove(move[0], move[1], currentPlayer);
-            currentPlayer = getOpponent(currentPlayer);
+            int square = playoutPolicy == PlayoutPolicy.HEAVY
+                    ? heuristicSquare(moves, black | white)
+                    : randomSquare(moves);
+            long flipped = ReversiBitboard.flips(own, opp, square);
+            own |= flipped | (1L << square);
+            opp &= ~flipped;
+            if (blackToMove) {
+                black = own;
+                white = opp;
+                playedByBlack |= 1L << square;
+            } else {
+                white = own;
+                black = opp;
+                playedByWhite |= 1L << square;
+            }
+            blackToMove = !blackToMove;
         }
 
-        // Determine result using stability-aware evaluation
-        return evaluateSimulationResult(game, aiPlayer);
+        // The player with the most discs wins
+        int aiCount = Long.bitCount(aiPlayer == 'B' ? black : white);
+        int opponentCount = Long.bitCount(aiPlayer == 'B' ? white : black);
+        return Integer.compare(aiCount, opponentCount);
     }
 
     /**
-     * Evaluates the simulation result considering stability and piece count.
-     * Uses getStabilityScore from AbstractReversiAI for a more nuanced evaluation.
-     *
-     * @param game The final game state
-     * @param aiPlayer The AI player symbol
-     * @return 1 if AI wins, 0 if draw, -1 if AI loses
+     * Picks a uniformly random square from a move mask without allocating
      */
-    private static int evaluateSimulationResult(Reversi game, char aiPlayer) {
-        char opponent = getOpponent(aiPlayer);
+    private int randomSquare(long moves) {
+        int skip = random.nextInt(Long.bitCount(moves));
+        for (int i = 0; i < skip; i++) {
+            moves &= moves - 1;
+        }
+        return Long.numberOfTrailingZeros(moves);
+    }
 
-        // First check for clear win/loss/draw
-        if (game.isWin(aiPlayer)) {
-            return 1;
-        } else if (game.isWin(opponent)) {
-            return -1;
-        } else if (game.isDraw()) {
-            return 0;
+    /**
+     * Picks a playout move using the corner and X-square knowledge of the positional weights.
+     * Corners are always taken; other squares are drawn with probability proportional to their
+     * playout weight, and squares next to a still empty corner get the lowest weight.
+     */
+    private int heuristicSquare(long moves, long occupied) {
+        long corners = moves & CORNER_MASK;
+        if (corners != 0) {
+            return randomSquare(corners);
         }
 
-        // If game ended due to no valid moves, use piece count and stability
-        int aiCount = game.count(aiPlayer);
-        int opponentCount = game.count(opponent);
-        int stabilityScore = getStabilityScore(game, aiPlayer, opponent);
+        long dangerous = 0L;
+        long emptyCorners = CORNER_MASK & ~occupied;
+        while (emptyCorners != 0) {
+            dangerous |= CORNER_NEIGHBOURS[Long.numberOfTrailingZeros(emptyCorners)];
+            emptyCorners &= emptyCorners - 1;
+        }
 
-        // Combine piece count advantage with stability advantage
-        int totalAdvantage = (aiCount - opponentCount) + (stabilityScore / 2);
+        int total = 0;
+        for (long m = moves; m != 0; m &= m - 1) {
+            int square = Long.numberOfTrailingZeros(m);
+            total += (dangerous & (1L << square)) != 0 ? 1 : PLAYOUT_WEIGHTS[square];
+        }
+        int pick = random.nextInt(total);
+        for (long m = moves; ; m &= m - 1) {
+            int square = Long.numberOfTrailingZeros(m);
+            pick -= (dangerous & (1L << square)) != 0 ? 1 : PLAYOUT_WEIGHTS[square];
+            if (pick < 0) {
+                return square;
+            }
+        }
+    }
 
-        if (totalAdvantage > 0) {
-            return 1;
-        } else if (totalAdvantage < 0) {
-            return -1;
-        } else {
-            return 0;
+    /**
+     * Bitboard version of getPositionalScore: positional weights of own discs minus the opponent's
+     */
+    private static int positionalScore(long own, long opp) {
+        int score = 0;
+        for (long m = own; m != 0; m &= m - 1) {
+            score += SQUARE_WEIGHTS[Long.numberOfTrailingZeros(m)];
+        }
+        for (long m = opp; m != 0; m &= m - 1) {
+            score -= SQUARE_WEIGHTS[Long.numberOfTrailingZeros(m)];
         }
+        return score;
     }
 
     /**
-     * Backpropagates the simulation result up the tree
+     * Backpropagates the simulation result up the tree.
+     * Each node is credited from the perspective of the player who moved into it.
+     * With RAVE enabled, every child whose move was played later in the simulation
+     * by the same player also gets an AMAF update.
+     * @param aiScore The result for the AI player (0-1), counted leafVisits times
      */
-    private static void backpropagate(MCTSNode node, int result) {
+    private void backpropagate(MCTSNode node, double aiScore, char aiPlayer) {
+        long blackMoves = playedByBlack;
+        long whiteMoves = playedByWhite;
         while (node != null) {
-            node.visits++;
-            if (result == 1) {
-                node.wins++;
-            } else if (result == 0) {
-                node.wins += 0.5; // Half point for draw
+            node.visits += leafVisits;
+            node.wins += leafVisits * (node.player == aiPlayer ? aiScore : 1.0 - aiScore);
+
+            if (useRave) {
+                for (MCTSNode child : node.children) {
+                    long played = child.player == 'B' ? blackMoves : whiteMoves;
+                    if ((played & (1L << (child.row * BOARD_SIZE + child.col))) != 0) {
+                        child.amafVisits += leafVisits;
+                        child.amafWins += leafVisits * (child.player == aiPlayer ? aiScore : 1.0 - aiScore);
+                    }
+                }
+                // The move into this node happened after everything above it
+                if (node.parent != null) {
+                    long bit = 1L << (node.row * BOARD_SIZE + node.col);
+                    if (node.player == 'B') blackMoves |= bit; else whiteMoves |= bit;
+                }
             }
             node = node.parent;
         }
     }
 
     /**
-     * Checks if a game state is terminal
+     * Checks if a node's position is terminal (no player can move)
      */
-    private static boolean isTerminal(Reversi game, MCTSNode node) {
-        if (node.row != -1 && node.col != -1) {
-            game.doMove(node.row, node.col, node.player);
-        }
-        return game.isWin('B') || game.isWin('W') || game.isDraw() ||
-               (!game.hasValidMove('B') && !game.hasValidMove('W'));
+    private static boolean isTerminal(MCTSNode node) {
+        return ReversiBitboard.isGameOver(node.black, node.white);
     }
 }
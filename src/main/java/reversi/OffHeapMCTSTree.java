@@ -0,0 +1,182 @@
+package reversi;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * MCTS node store that keeps the whole tree outside the Java heap.
+ * Nodes have a fixed layout of {@link #NODE_SIZE} bytes and are addressed by index.
+ * The children of a node are stored next to each other, so a node only needs the index
+ * of its first child and the number of children.
+ *
+ * Memory comes from a confined {@link Arena} in chunks of {@link #CHUNK_NODES} nodes,
+ * allocated when needed. The tree belongs to one search session: closing it frees all
+ * nodes at once, and the garbage collector never has to trace them.
+ */
+final class OffHeapMCTSTree implements AutoCloseable {
+    // Node layout (8-byte fields first, so every field is naturally aligned)
+    private static final long BLACK = 0;
+    private static final long WHITE = 8;
+    private static final long WINS = 16;
+    private static final long HEURISTIC = 24;
+    private static final long VISITS = 32;
+    private static final long PARENT = 36;
+    private static final long FIRST_CHILD = 40;
+    private static final long CHILD_COUNT = 44;
+    private static final long SQUARE = 48;
+    private static final long PLAYER = 49;
+    static final long NODE_SIZE = 56;
+
+    private static final int CHUNK_BITS = 16;
+    static final int CHUNK_NODES = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_NODES - 1;
+
+    private final Arena arena = Arena.ofConfined();
+    private final MemorySegment[] chunks;
+    private final int capacity;
+    private int size = 0;
+
+    /**
+     * Creates an empty tree
+     * @param capacity The maximum number of nodes
+     */
+    OffHeapMCTSTree(int capacity) {
+        this.capacity = capacity;
+        this.chunks = new MemorySegment[(capacity + CHUNK_NODES - 1) / CHUNK_NODES];
+    }
+
+    /**
+     * Reserves a block of consecutive nodes
+     * @param count The number of nodes
+     * @return The index of the first node, or -1 if the tree is full
+     */
+    int allocate(int count) {
+        if (size + count > capacity) {
+            return -1;
+        }
+        // Keep a block inside one chunk, so consecutive indices stay consecutive in memory
+        int offsetInChunk = size & CHUNK_MASK;
+        if (offsetInChunk + count > CHUNK_NODES) {
+            size += CHUNK_NODES - offsetInChunk;
+            if (size + count > capacity) {
+                return -1;
+            }
+        }
+        int first = size;
+        size += count;
+        for (int chunk = first >>> CHUNK_BITS; chunk <= (size - 1) >>> CHUNK_BITS; chunk++) {
+            if (chunks[chunk] == null) {
+                chunks[chunk] = arena.allocate(CHUNK_NODES * NODE_SIZE, Long.BYTES);
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Writes a new node; statistics start at zero and the node has no children
+     */
+    void init(int node, int parent, int square, char player, long black, long white, double heuristic) {
+        MemorySegment chunk = chunks[node >>> CHUNK_BITS];
+        long base = (node & CHUNK_MASK) * NODE_SIZE;
+        chunk.set(ValueLayout.JAVA_LONG, base + BLACK, black);
+        chunk.set(ValueLayout.JAVA_LONG, base + WHITE, white);
+        chunk.set(ValueLayout.JAVA_DOUBLE, base + WINS, 0.0);
+        chunk.set(ValueLayout.JAVA_DOUBLE, base + HEURISTIC, heuristic);
+        chunk.set(ValueLayout.JAVA_INT, base + VISITS, 0);
+        chunk.set(ValueLayout.JAVA_INT, base + PARENT, parent);
+        chunk.set(ValueLayout.JAVA_INT, base + FIRST_CHILD, -1);
+        chunk.set(ValueLayout.JAVA_INT, base + CHILD_COUNT, 0);
+        chunk.set(ValueLayout.JAVA_BYTE, base + SQUARE, (byte) square);
+        chunk.set(ValueLayout.JAVA_BYTE, base + PLAYER, (byte) player);
+    }
+
+    void setChildren(int node, int firstChild, int count) {
+        segment(node).set(ValueLayout.JAVA_INT, offset(node) + FIRST_CHILD, firstChild);
+        segment(node).set(ValueLayout.JAVA_INT, offset(node) + CHILD_COUNT, count);
+    }
+
+    /**
+     * Adds one simulation result
+     * @param score The result for the node's player (1 win, 0.5 draw, 0 loss)
+     */
+    void update(int node, double score) {
+        MemorySegment chunk = segment(node);
+        long base = offset(node);
+        chunk.set(ValueLayout.JAVA_INT, base + VISITS, chunk.get(ValueLayout.JAVA_INT, base + VISITS) + 1);
+        chunk.set(ValueLayout.JAVA_DOUBLE, base + WINS, chunk.get(ValueLayout.JAVA_DOUBLE, base + WINS) + score);
+    }
+
+    long black(int node) {
+        return segment(node).get(ValueLayout.JAVA_LONG, offset(node) + BLACK);
+    }
+
+    long white(int node) {
+        return segment(node).get(ValueLayout.JAVA_LONG, offset(node) + WHITE);
+    }
+
+    double wins(int node) {
+        return segment(node).get(ValueLayout.JAVA_DOUBLE, offset(node) + WINS);
+    }
+
+    double heuristic(int node) {
+        return segment(node).get(ValueLayout.JAVA_DOUBLE, offset(node) + HEURISTIC);
+    }
+
+    int visits(int node) {
+        return segment(node).get(ValueLayout.JAVA_INT, offset(node) + VISITS);
+    }
+
+    int parent(int node) {
+        return segment(node).get(ValueLayout.JAVA_INT, offset(node) + PARENT);
+    }
+
+    int firstChild(int node) {
+        return segment(node).get(ValueLayout.JAVA_INT, offset(node) + FIRST_CHILD);
+    }
+
+    int childCount(int node) {
+        return segment(node).get(ValueLayout.JAVA_INT, offset(node) + CHILD_COUNT);
+    }
+
+    int square(int node) {
+        return segment(node).get(ValueLayout.JAVA_BYTE, offset(node) + SQUARE);
+    }
+
+    char player(int node) {
+        return (char) segment(node).get(ValueLayout.JAVA_BYTE, offset(node) + PLAYER);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of bytes reserved off-heap so far
+     */
+    long reservedBytes() {
+        long total = 0;
+        for (MemorySegment chunk : chunks) {
+            if (chunk != null) {
+                total += chunk.byteSize();
+            }
+        }
+        return total;
+    }
+
+    private MemorySegment segment(int node) {
+        return chunks[node >>> CHUNK_BITS];
+    }
+
+    private static long offset(int node) {
+        return (node & CHUNK_MASK) * NODE_SIZE;
+    }
+
+    /**
+     * Frees all nodes; the tree can not be used afterwards
+     */
+    @Override
+    public void close() {
+        arena.close();
+    }
+}
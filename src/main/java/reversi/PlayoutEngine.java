@@ -0,0 +1,39 @@
+package reversi;
+
+import java.util.SplittableRandom;
+
+/**
+ * Plays a batch of independent Reversi games to the end with uniformly random moves.
+ * Used by the MCTS leaf parallelization: all playouts of one leaf are played as one batch.
+ */
+interface PlayoutEngine {
+
+    /**
+     * Plays the games of a batch to the end
+     * @param black Black discs per game, replaced by the final position
+     * @param white White discs per game, replaced by the final position
+     * @param blackToMove Side to move per game
+     * @param count Number of games to play (from index 0)
+     * @param random Source of the move choices
+     */
+    void playout(long[] black, long[] white, boolean[] blackToMove, int count, SplittableRandom random);
+
+    String getName();
+
+    /**
+     * Creates the fastest available engine: the Vector API engine when it was compiled (from the
+     * optional src/vector/java source root) and the jdk.incubator.vector module is present,
+     * otherwise the scalar engine
+     */
+    static PlayoutEngine create() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (PlayoutEngine) Class.forName("reversi.VectorPlayoutEngine")
+                        .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                System.out.println("[MCTS AI] Vector playouts not available, using scalar playouts: " + e);
+            }
+        }
+        return new ScalarPlayoutEngine();
+    }
+}
@@ -1,6 +1,7 @@
 package reversi;
 
 import framework.boardgame.AbstractBoardGame;
+import framework.boardgame.GameStatus;
 import framework.boardgame.Move;
 import framework.boardgame.Position;
 
@@ -8,7 +9,7 @@ import framework.boardgame.Position;
  * Implements the game logic for Reversi (also known as Othello).
  * Uses Move and Position classes from the framework.
  */
-public class Reversi extends AbstractBoardGame {
+public final class Reversi extends AbstractBoardGame {
     
     /**
      * Creates a new Reversi game with an 8x8 board.
@@ -18,10 +19,10 @@ public class Reversi extends AbstractBoardGame {
     public Reversi() {
         super(8, 8, ' ');
         // Standard starting position
-        board[27] = 'W'; // (3,3)
-        board[28] = 'B'; // (3,4)
-        board[35] = 'B'; // (4,3)
-        board[36] = 'W'; // (4,4)
+        setCell(27, 'W'); // (3,3)
+        setCell(28, 'B'); // (3,4)
+        setCell(35, 'B'); // (4,3)
+        setCell(36, 'W'); // (4,4)
     }
 
     /**
@@ -90,6 +91,26 @@ public class Reversi extends AbstractBoardGame {
         return false;
     }
 
+    /**
+     * Checks if a move is valid for the specified player, using a board index.
+     * Used by the generic search in the framework.
+     */
+    @Override
+    public boolean isLegalMove(int pos, char player) {
+        return isValidPosition(pos) && isValidMove(pos / 8, pos % 8, player);
+    }
+
+    /**
+     * Executes a move using a board index, including flipping the captured pieces.
+     * Like the base class, an occupied or out-of-range index is ignored.
+     */
+    @Override
+    public void doMove(int pos, char player) {
+        if (isValidPosition(pos) && isFree(pos)) {
+            doMove(pos / 8, pos % 8, player);
+        }
+    }
+
     /**
      * Executes a move using Move object
      */
@@ -102,7 +123,8 @@ public class Reversi extends AbstractBoardGame {
     /**
      * Executes a move for the specified player.
      * Places a piece at the specified position and flips all captured opponent pieces.
-     * Assumes the move has already been validated.
+     * Assumes the move has already been validated. The move and its flips are recorded,
+     * so {@link #undo()} restores the flipped pieces as well.
      *
      * @param row The row where the piece is placed (0-7)
      * @param col The column where the piece is placed (0-7)
@@ -110,7 +132,8 @@ public class Reversi extends AbstractBoardGame {
      */
     public void doMove(int row, int col, char player) {
         int pos = row * 8 + col;
-        board[pos] = player;
+        beginMove(pos, player);
+        setCell(pos, player);
         char opponent = (player == 'B') ? 'W' : 'B';
         for (int dr = -1; dr <= 1; dr++) {
             for (int dc = -1; dc <= 1; dc++) {
@@ -122,13 +145,14 @@ public class Reversi extends AbstractBoardGame {
                 if (count > 0 && r >= 0 && r < 8 && c >= 0 && c < 8 && getSymbolAt(r, c) == player) {
                     int rr = row + dr, cc = col + dc;
                     while (rr != r || cc != c) {
-                        board[rr * 8 + cc] = player;
+                        setCell(rr * 8 + cc, player);
                         rr += dr; cc += dc;
                     }
                 }
             }
         }
         updateStatus();
+        endMove();
     }
 
     /**
@@ -144,6 +168,31 @@ public class Reversi extends AbstractBoardGame {
         return false;
     }
 
+    /**
+     * Same result as the inherited version (which looks for 'X' and 'O' and so only ever
+     * reports a draw for Reversi), but with one bitboard move generation per side instead of
+     * up to six scans of the board.
+     */
+    @Override
+    protected void updateStatus() {
+        long black = ReversiBitboard.fromBoard(board, 'B');
+        long white = ReversiBitboard.fromBoard(board, 'W');
+        if (ReversiBitboard.isGameOver(black, white) && Long.bitCount(black) == Long.bitCount(white)) {
+            status = GameStatus.DRAW;
+        } else {
+            status = GameStatus.IN_PROGRESS;
+        }
+    }
+
+    /**
+     * Reversi uses 'B' and 'W' in the one-line notation, e.g. the starting position is
+     * {@code ---------------------------WB------BW--------------------------- B}.
+     */
+    @Override
+    protected boolean isPlayerSymbol(char symbol) {
+        return symbol == 'B' || symbol == 'W';
+    }
+
     /**
      * Counts the number of pieces belonging to the specified player.
      *
@@ -0,0 +1,215 @@
+package reversi;
+
+import framework.arena.Arena;
+import framework.arena.Sprt;
+import framework.boardgame.Position;
+import framework.controllers.AIMoveProvider;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.LongConsumer;
+
+/**
+ * Headless self-play match between two Reversi engines, to measure whether a change makes an AI
+ * stronger or faster. Runs on all cores, plays every opening with both colours and prints the Elo
+ * difference with its confidence interval, the SPRT state and the speed of both engines.
+ *
+ * Usage: java reversi.ReversiArena [options]
+ *   --a ENGINE, --b ENGINE   the engines (default minimax and mcts)
+ *   --games N                maximum number of games (default 1000)
+ *   --threads N              parallel games (default: all cores)
+ *   --plies N                random opening length in plies (default 6)
+ *   --openings FILE          openings in board notation, one per line (instead of random openings)
+ *   --sprt ELO0,ELO1         stop early with an SPRT (alpha = beta = 0.05)
+ *   --tc BASE+INC            time control in ms per player; engines get a budget per move
+ *   --seed N                 seed for the random openings (default 1)
+ * Engines: minimax, mcts (1000 simulations), mcts:MS, mcts-rave:MS, mcts-sims:N, random
+ */
+public class ReversiArena {
+    private static final int DEFAULT_GAMES = 1000;
+    private static final int DEFAULT_OPENING_PLIES = 6;
+    private static final double AVERAGE_LEGAL_MOVES = 8;
+
+    public static void main(String[] args) {
+        String specA = "minimax";
+        String specB = "mcts";
+        int games = DEFAULT_GAMES;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int plies = DEFAULT_OPENING_PLIES;
+        String openingFile = null;
+        Sprt sprt = null;
+        long base = 0;
+        long increment = 0;
+        long seed = 1;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                String value = i + 1 < args.length ? args[++i] : "";
+                switch (option) {
+                    case "--a":
+                        specA = value;
+                        break;
+                    case "--b":
+                        specB = value;
+                        break;
+                    case "--games":
+                        games = Integer.parseInt(value);
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(value);
+                        break;
+                    case "--plies":
+                        plies = Integer.parseInt(value);
+                        break;
+                    case "--openings":
+                        openingFile = value;
+                        break;
+                    case "--sprt":
+                        String[] bounds = value.split(",");
+                        sprt = new Sprt(Double.parseDouble(bounds[0]), Double.parseDouble(bounds[1]), 0.05, 0.05);
+                        break;
+                    case "--tc":
+                        String[] control = value.split("\\+");
+                        base = Long.parseLong(control[0]);
+                        increment = control.length > 1 ? Long.parseLong(control[1]) : 0;
+                        break;
+                    case "--seed":
+                        seed = Long.parseLong(value);
+                        break;
+                    default:
+                        printUsage("Unknown option " + option);
+                        return;
+                }
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            printUsage("Invalid value: " + e.getMessage());
+            return;
+        }
+
+        Arena.EngineFactory<Reversi> engineA = createEngine(specA);
+        Arena.EngineFactory<Reversi> engineB = createEngine(specB);
+        if (engineA == null || engineB == null) {
+            printUsage("Unknown engine " + (engineA == null ? specA : specB));
+            return;
+        }
+        String nameA = specA.equals(specB) ? specA + " (A)" : specA;
+        String nameB = specA.equals(specB) ? specB + " (B)" : specB;
+
+        Arena<Reversi> arena = new Arena<>(Reversi::new, 'B', 'W', nameA, engineA, nameB, engineB);
+        arena.setThreads(threads);
+        arena.setSprt(sprt);
+        arena.setTimeControl(base, increment, AVERAGE_LEGAL_MOVES);
+        arena.setProgress(System.out, 50);
+
+        List<String> openings;
+        if (openingFile != null) {
+            try {
+                openings = readOpenings(openingFile);
+            } catch (IOException e) {
+                printUsage("Cannot read openings: " + e.getMessage());
+                return;
+            }
+        } else {
+            openings = Arena.randomOpenings(Reversi::new, 'B', 'W', plies, (games + 1) / 2, seed);
+        }
+        int accepted = arena.setOpenings(openings);
+        System.out.println(nameA + " vs " + nameB + ": up to " + games + " games on " + threads + " threads, "
+                + accepted + " openings");
+
+        arena.run(games);
+        arena.printReport(System.out);
+    }
+
+    /**
+     * Creates an engine from its command-line name, with logging turned off.
+     * @return The engine, or null if the name is unknown
+     */
+    static Arena.EngineFactory<Reversi> createEngine(String spec) {
+        String[] parts = spec.split(":", 2);
+        String type = parts[0];
+        long value;
+        try {
+            value = parts.length > 1 ? Long.parseLong(parts[1]) : 0;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        switch (type) {
+            case "minimax":
+                return nodes -> {
+                    ReversiMinimax ai = new ReversiMinimax();
+                    ai.setVerbose(false);
+                    return (game, player, budget) -> {
+                        Position move = ai.findBestMove(game, player);
+                        nodes.accept(ai.getLastNodeCount());
+                        return move == null ? -1 : move.getIndex();
+                    };
+                };
+            case "mcts":
+            case "mcts-rave":
+            case "mcts-sims":
+                return nodes -> {
+                    MonteCarloTreeSearchAI ai = new MonteCarloTreeSearchAI();
+                    ai.setVerbose(false);
+                    if (type.equals("mcts-rave")) {
+                        ai.setUseRave(true);
+                    }
+                    if (type.equals("mcts-sims") && value > 0) {
+                        ai.setSimulations((int) Math.min(Integer.MAX_VALUE, value));
+                    } else if (value > 0) {
+                        ai.setSimulations(Integer.MAX_VALUE);  // Only the time limit counts
+                        ai.setTimeLimit(value);
+                    }
+                    return (game, player, budget) -> mctsMove(ai, game, player, budget, nodes);
+                };
+            case "random":
+                return nodes -> {
+                    Random random = new Random();
+                    return (game, player, budget) -> {
+                        List<Integer> moves = game.getLegalMoves(player);
+                        return moves.isEmpty() ? -1 : moves.get(random.nextInt(moves.size()));
+                    };
+                };
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Searches with MCTS; with a time control the budget replaces the time limit.
+     */
+    private static int mctsMove(MonteCarloTreeSearchAI ai, Reversi game, char player, long budget,
+                                LongConsumer nodes) {
+        if (budget > 0) {
+            ai.setSimulations(Integer.MAX_VALUE);
+            ai.setTimeLimit(budget);
+        }
+        int[] move = ai.findBestMove(game, player);
+        nodes.accept(ai.getLastNodeCount());
+        return move == null ? -1 : move[0] * 8 + move[1];
+    }
+
+    private static List<String> readOpenings(String file) throws IOException {
+        List<String> openings = new ArrayList<>();
+        for (String line : Files.readAllLines(Paths.get(file), StandardCharsets.UTF_8)) {
+            String opening = line.trim();
+            if (!opening.isEmpty() && !opening.startsWith("#")) {
+                openings.add(opening);
+            }
+        }
+        return openings;
+    }
+
+    private static void printUsage(String error) {
+        System.out.println(error);
+        System.out.println("Usage: java reversi.ReversiArena [--a ENGINE] [--b ENGINE] [--games N] [--threads N]");
+        System.out.println("       [--plies N] [--openings FILE] [--sprt ELO0,ELO1] [--tc BASE+INC] [--seed N]");
+        System.out.println("Engines: minimax, mcts, mcts:MS, mcts-rave:MS, mcts-sims:N, random");
+    }
+}
@@ -0,0 +1,186 @@
+package reversi;
+
+/**
+ * Compact bitboard helpers for Reversi.
+ * A position is stored as two longs (one per colour) where bit {@code row * 8 + col}
+ * is set when that player owns the square. Used by the search code to keep positions
+ * in tree nodes and to run playouts without touching a {@link Reversi} instance.
+ */
+public final class ReversiBitboard {
+
+    // Masks that clear the column a shifted bit would wrap into
+    private static final long NOT_COLUMN_0 = 0xFEFEFEFEFEFEFEFEL;
+    private static final long NOT_COLUMN_7 = 0x7F7F7F7F7F7F7F7FL;
+
+    // The eight directions as bit shifts (positive = towards higher indices)
+    private static final int[] SHIFTS = {1, -1, 8, -8, 9, 7, -7, -9};
+    private static final long[] SHIFT_MASKS = {
+        NOT_COLUMN_0, NOT_COLUMN_7, -1L, -1L, NOT_COLUMN_0, NOT_COLUMN_7, NOT_COLUMN_0, NOT_COLUMN_7
+    };
+    // Index of the opposite direction
+    private static final int[] OPPOSITE = {1, 0, 3, 2, 7, 6, 5, 4};
+
+    /** Squares of the standard starting position. */
+    public static final long START_BLACK = (1L << 28) | (1L << 35);
+    public static final long START_WHITE = (1L << 27) | (1L << 36);
+
+    private ReversiBitboard() {
+    }
+
+    /**
+     * Shifts all bits one step in the given direction, dropping bits that leave the board.
+     *
+     * @param bits The bits to shift
+     * @param direction Index into the direction table (0-7)
+     * @return The shifted bits
+     */
+    private static long shift(long bits, int direction) {
+        int s = SHIFTS[direction];
+        return (s > 0 ? bits << s : bits >>> -s) & SHIFT_MASKS[direction];
+    }
+
+    /**
+     * Calculates all legal moves for the player owning {@code own}.
+     *
+     * @param own The discs of the player to move
+     * @param opp The discs of the opponent
+     * @return A mask with one bit set for every legal move
+     */
+    public static long legalMoves(long own, long opp) {
+        long empty = ~(own | opp);
+        long moves = 0L;
+        for (int dir = 0; dir < 8; dir++) {
+            long x = shift(own, dir) & opp;
+            x |= shift(x, dir) & opp;
+            x |= shift(x, dir) & opp;
+            x |= shift(x, dir) & opp;
+            x |= shift(x, dir) & opp;
+            x |= shift(x, dir) & opp;
+            moves |= shift(x, dir) & empty;
+        }
+        return moves;
+    }
+
+    /**
+     * Calculates which opponent discs are flipped when the player places a disc on a square.
+     *
+     * @param own The discs of the player to move
+     * @param opp The discs of the opponent
+     * @param square The square index (row * 8 + col)
+     * @return A mask of the flipped discs, 0 if the move is not legal
+     */
+    public static long flips(long own, long opp, int square) {
+        long move = 1L << square;
+        long flipped = 0L;
+        for (int dir = 0; dir < 8; dir++) {
+            long line = 0L;
+            long x = shift(move, dir);
+            while ((x & opp) != 0) {
+                line |= x;
+                x = shift(x, dir);
+            }
+            if ((x & own) != 0) {
+                flipped |= line;
+            }
+        }
+        return flipped;
+    }
+
+    /**
+     * Checks if neither player has a legal move left.
+     *
+     * @param black The black discs
+     * @param white The white discs
+     * @return true if the game is over
+     */
+    public static boolean isGameOver(long black, long white) {
+        return legalMoves(black, white) == 0 && legalMoves(white, black) == 0;
+    }
+
+    /**
+     * Calculates all squares next to (in one of the eight directions) a square in {@code bits}.
+     *
+     * @param bits The squares
+     * @return The neighbouring squares, which may include squares of {@code bits} itself
+     */
+    public static long neighbours(long bits) {
+        long result = 0L;
+        for (int dir = 0; dir < 8; dir++) {
+            result |= shift(bits, dir);
+        }
+        return result;
+    }
+
+    /**
+     * Finds the discs whose lines in all eight directions are filled with discs of
+     * {@code discs} up to the edge of the board (the stability rule used by the evaluation).
+     *
+     * @param discs The discs of one player
+     * @return The discs that are stable by that rule
+     */
+    public static long stableDiscs(long discs) {
+        long stable = discs;
+        for (int dir = 0; dir < 8; dir++) {
+            int back = OPPOSITE[dir];
+            // Discs on the edge in this direction, then the discs behind them
+            long line = discs & ~shift(-1L, back);
+            for (int i = 0; i < 7; i++) {
+                line |= discs & shift(line, back);
+            }
+            stable &= line;
+        }
+        return stable;
+    }
+
+    /**
+     * Hashes a position (discs plus side to move) to a 64-bit key.
+     * Never returns 0, so callers can use 0 to mark an empty slot.
+     *
+     * @param black The black discs
+     * @param white The white discs
+     * @param blackToMove true if black is to move
+     * @return The hash key
+     */
+    public static long hash(long black, long white, boolean blackToMove) {
+        long h = black * 0x9E3779B97F4A7C15L;
+        h ^= Long.rotateLeft(white * 0xC2B2AE3D27D4EB4FL, 31);
+        if (blackToMove) {
+            h ^= 0x165667B19E3779F9L;
+        }
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        h ^= h >>> 31;
+        return h == 0 ? 1 : h;
+    }
+
+    /**
+     * Builds the bitboard of one player from a board array.
+     *
+     * @param board The board array (64 cells)
+     * @param player The player symbol ('B' or 'W')
+     * @return The bitboard of that player
+     */
+    public static long fromBoard(char[] board, char player) {
+        long bits = 0L;
+        for (int i = 0; i < 64; i++) {
+            if (board[i] == player) {
+                bits |= 1L << i;
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Writes a bitboard position back into a board array.
+     *
+     * @param black The black discs
+     * @param white The white discs
+     * @param board The board array to fill (64 cells)
+     */
+    public static void toBoard(long black, long white, char[] board) {
+        for (int i = 0; i < 64; i++) {
+            long bit = 1L << i;
+            board[i] = (black & bit) != 0 ? 'B' : (white & bit) != 0 ? 'W' : ' ';
+        }
+    }
+}
@@ -2,9 +2,18 @@ package reversi;
 
 import framework.boardgame.Move;
 import framework.boardgame.Position;
+import framework.boardgame.BoardSnapshot;
+import framework.boardgame.GameClock;
+import framework.boardgame.GameRecord;
+import framework.boardgame.GameRecordWriter;
 import framework.boardgame.GameResult;
+import framework.ai.TimeManager;
+import framework.controllers.AIExecutor;
 import framework.players.AbstractPlayer;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Reversi Game Controller - Backend game logic only
  * Handelt alle Reversi-specifieke spelregels af (passes, flips, etc)
@@ -22,6 +31,14 @@ public class ReversiGameController {
     private final ReversiMinimax minimaxAI;
     private final MonteCarloTreeSearchAI mctsAI;
     private boolean useMCTS = false;
+    private final GameRecord record;
+    private GameRecordWriter recordWriter;
+    private AIExecutor aiExecutor = AIExecutor.getInstance();
+    private long aiTimeout = 0;                       // Deadline per AI zet in ms (0 = geen)
+    private CompletableFuture<Position> pendingAIMove;
+    private int aiSearchId = 0;                       // Verhoogd bij elke zoekopdracht; oude uitkomsten worden genegeerd
+    private GameClock clock;                          // null = geen tijdcontrole
+    private final TimeManager timeManager = new TimeManager(8);
 
     /**
      * Listener interface voor UI updates
@@ -41,6 +58,8 @@ public class ReversiGameController {
         this.minimaxAI = minimaxAI;
         this.mctsAI = mctsAI;
         this.currentPlayer = player1;
+        this.record = new GameRecord(GameRecord.REVERSI, 8, 8,
+                player1.getName(), player1.getSymbol(), player2.getName(), player2.getSymbol());
     }
 
     public void setGameListener(GameListener listener) {
@@ -51,11 +70,65 @@ public class ReversiGameController {
         this.useMCTS = use;
     }
 
+    /**
+     * Stel een archief in waar het spel aan het eind aan wordt toegevoegd (null = niet opslaan)
+     */
+    public void setGameRecordWriter(GameRecordWriter writer) {
+        this.recordWriter = writer;
+    }
+
+    /**
+     * Stel de executor in waarop de AI zoekt (standaard op de achtergrond met aflevering op de EDT)
+     */
+    public void setAIExecutor(AIExecutor executor) {
+        this.aiExecutor = executor;
+    }
+
+    /**
+     * Stel een deadline per AI zet in; als de AI niet op tijd is wordt een geldige zet gespeeld
+     * @param millis De deadline in milliseconden (0 = geen deadline)
+     */
+    public void setAITimeout(long millis) {
+        this.aiTimeout = Math.max(0, millis);
+    }
+
+    /**
+     * Stel een klok in (basistijd plus increment per speler); de klok van de speler die aan zet is start meteen
+     * Met een klok krijgt de AI per zet een budget van de TimeManager, en verliest wie door de tijd gaat
+     * @param clock De klok, of null voor geen tijdcontrole
+     */
+    public void setClock(GameClock clock) {
+        this.clock = clock;
+        if (clock != null && !gameDone) {
+            clock.start(currentPlayer.getSymbol());
+        }
+    }
+
+    /**
+     * Controleer of de speler die aan zet is door de tijd is gegaan; zo ja, dan wint de tegenstander
+     * Kan door de UI regelmatig aangeroepen worden (bijvoorbeeld vanuit een Swing Timer)
+     * @return true als het spel daardoor afgelopen is
+     */
+    public boolean checkClock() {
+        if (gameDone || clock == null || !clock.isFlagged(currentPlayer.getSymbol())) {
+            return false;
+        }
+        cancelAIMove();
+        gameDone = true;
+        GameResult result = GameResult.createWin(getOpponentPlayer());
+        finishRecord(result);
+        notifyStatusChanged(currentPlayer.getName() + " ran out of time");
+        if (gameListener != null) {
+            gameListener.onGameEnded(result);
+        }
+        return true;
+    }
+
     /**
      * Voer een zet uit met rij/kolom coördinaten
      */
     public boolean makeMove(int row, int col) {
-        if (gameDone || aiThinking) return false;
+        if (gameDone || aiThinking || checkClock()) return false;
 
         if (!game.isValidMove(row, col, currentPlayer.getSymbol())) {
             return false;
@@ -63,6 +136,10 @@ public class ReversiGameController {
 
         Move move = new Move(row * 8 + col, currentPlayer.getSymbol(), 8);
         game.doMove(move);
+        record.addMove(move.getIndex());
+        if (clock != null) {
+            clock.press(move.getPlayer());
+        }
 
         if (gameListener != null) {
             gameListener.onMoveExecuted(move);
@@ -94,11 +171,17 @@ public class ReversiGameController {
             // CHECK IF OPPONENT ALSO HAS NO LEGAL MOVES - GAME OVER
             if (!hasLegalMoves(currentPlayer.getSymbol())) {
                 gameDone = true;
+                GameResult result = determineWinner();
+                finishRecord(result);
                 if (gameListener != null) {
-                    gameListener.onGameEnded(determineWinner());
+                    gameListener.onGameEnded(result);
                 }
                 return true;
             }
+            record.addPass();
+            if (clock != null) {
+                clock.start(currentPlayer.getSymbol()); // De tegenstander past: weer de klok van de zetter
+            }
 
             notifyStatusChanged(currentPlayer.getName() + "'s turn");
 
@@ -123,6 +206,36 @@ public class ReversiGameController {
         return true;
     }
 
+    /**
+     * Neem de laatste zet terug, en ook de zetten van de AI ervoor zodat weer een mens aan de beurt is
+     * Passes hoeven niet teruggedraaid te worden: na undo is de speler van de teruggenomen zet aan de beurt
+     * @return true als er een zet teruggenomen is
+     */
+    public boolean takeback() {
+        if (gameDone || aiThinking || !game.canUndo()) {
+            return false;
+        }
+        do {
+            char player = game.getLastMovePlayer();
+            game.undo();
+            record.removeLastMove();
+            currentPlayer = player == player1.getSymbol() ? player1 : player2;
+        } while (currentPlayer.isAI() && game.canUndo());
+
+        lastMoveWasPass = false;
+        if (clock != null) {
+            clock.start(currentPlayer.getSymbol());
+        }
+        if (gameListener != null) {
+            gameListener.onMoveExecuted(null);
+        }
+        notifyStatusChanged();
+        if (currentPlayer.isAI()) {
+            makeAIMove(); // Alleen als de AI het spel begon en er niets meer terug te nemen is
+        }
+        return true;
+    }
+
     /**
      * Check if a player has any legal moves available
      */
@@ -146,6 +259,8 @@ public class ReversiGameController {
 
     /**
      * Maak een AI zet
+     * De AI zoekt op de achtergrond in een kopie van het spel; de zet wordt daarna op de afleverthread
+     * (de EDT) uitgevoerd, zodat de UI blijft reageren en makeMove niet recursief aangeroepen wordt
      */
     public void makeAIMove() {
         if (aiThinking || !currentPlayer.isAI() || gameDone) {
@@ -157,24 +272,82 @@ public class ReversiGameController {
             gameListener.onAIThinking(true);
         }
 
-        Position bestMove;
-        if (useMCTS) {
-            int[] moveArray = MonteCarloTreeSearchAI.bestMove(game, currentPlayer.getSymbol());
-            bestMove = (moveArray == null) ? null : new Position(moveArray[0], moveArray[1], 8);
-        } else {
-            bestMove = minimaxAI.findBestMove(game, currentPlayer.getSymbol());
+        BoardSnapshot position = game.snapshot();
+        char player = currentPlayer.getSymbol();
+        boolean mcts = useMCTS;
+        int searchId = ++aiSearchId;
+
+        // Met een klok: budget voor de zoekopdracht en een harde deadline als vangnet
+        long budget = 0;
+        long timeout = aiTimeout;
+        if (clock != null) {
+            budget = timeManager.allocate(clock, player, game);
+            long hardLimit = timeManager.hardLimit(clock.getRemaining(player), budget);
+            timeout = timeout > 0 ? Math.min(timeout, hardLimit) : hardLimit;
         }
+        long searchBudget = budget;
+        pendingAIMove = aiExecutor.submit(() -> findAIMove(position, player, mcts, searchBudget), timeout,
+                (bestMove, error) -> onAIMoveFound(searchId, player, bestMove, error));
+    }
+
+    /**
+     * Zoekt een zet (op de zoekthread), in een eigen kopie van de positie
+     * @param budget De tijd voor MCTS in ms (0 = de eigen instellingen van de AI); minimax zoekt op vaste diepte
+     */
+    private Position findAIMove(BoardSnapshot position, char player, boolean mcts, long budget) {
+        Reversi searchGame = new Reversi();
+        searchGame.restore(position);
+        if (mcts) {
+            // Het budget geldt alleen voor deze zet; daarna weer de eigen tijdslimiet van de AI
+            long previousLimit = mctsAI.getTimeLimit();
+            if (budget > 0) {
+                mctsAI.setTimeLimit(budget);
+            }
+            try {
+                int[] moveArray = mctsAI.findBestMove(searchGame, player);
+                return (moveArray == null) ? null : Position.of(moveArray[0], moveArray[1], 8);
+            } finally {
+                mctsAI.setTimeLimit(previousLimit);
+            }
+        }
+        return minimaxAI.findBestMove(searchGame, player);
+    }
 
+    /**
+     * Verwerkt de uitkomst van de AI (op de afleverthread)
+     * Bij een fout of verlopen deadline wordt de eerste geldige zet gespeeld
+     */
+    private void onAIMoveFound(int searchId, char player, Position bestMove, Throwable error) {
+        if (searchId != aiSearchId || gameDone) {
+            return; // Geannuleerd of achterhaald
+        }
+        pendingAIMove = null;
         aiThinking = false;
         if (gameListener != null) {
             gameListener.onAIThinking(false);
         }
 
+        if (error != null) {
+            List<Integer> moves = game.getLegalMoves(player);
+            bestMove = moves.isEmpty() ? null : Position.of(moves.get(0), 8);
+        }
         if (bestMove != null) {
             makeMove(bestMove.getRow(), bestMove.getColumn());
         }
     }
 
+    /**
+     * Stopt een lopende AI zoekopdracht, bijvoorbeeld bij terug naar het menu
+     */
+    public void cancelAIMove() {
+        aiSearchId++;
+        if (pendingAIMove != null) {
+            pendingAIMove.cancel(true);
+            pendingAIMove = null;
+        }
+        aiThinking = false;
+    }
+
     /**
      * Wissel van speler
      */
@@ -213,12 +386,31 @@ public class ReversiGameController {
         
         // Bord vol - spel voorbij
         gameDone = true;
+        GameResult result = determineWinner();
+        finishRecord(result);
         if (gameListener != null) {
-            gameListener.onGameEnded(determineWinner());
+            gameListener.onGameEnded(result);
         }
         return true;
     }
 
+    /**
+     * Sluit het spelverslag af en voeg het toe aan het archief
+     */
+    private void finishRecord(GameResult result) {
+        if (clock != null) {
+            clock.stop();
+        }
+        if (result.getType() == GameResult.ResultType.DRAW) {
+            record.finish(GameRecord.DRAW);
+        } else {
+            record.finish(result.getWinner() == player1 ? GameRecord.FIRST_WINS : GameRecord.SECOND_WINS);
+        }
+        if (recordWriter != null) {
+            recordWriter.append(record);
+        }
+    }
+
     private void notifyStatusChanged() {
         if (gameListener != null) {
             gameListener.onStatusChanged(currentPlayer.getName() + "'s turn");
@@ -238,9 +430,12 @@ public class ReversiGameController {
     public AbstractPlayer getPlayer2() { return player2; }
     public boolean isGameDone() { return gameDone; }
     public char[] getBoardState() { return game.getBord(); }
+    public BoardSnapshot getSnapshot() { return game.snapshot(); }
     public boolean isAIThinking() { return aiThinking; }
     public int getScore(char player) { return game.count(player); }
     public boolean wasLastMovePass() { return lastMoveWasPass; }
+    public GameRecord getGameRecord() { return record; }
+    public GameClock getClock() { return clock; }
 
     
 }
@@ -0,0 +1,387 @@
+package reversi;
+
+import framework.boardgame.BoardSymmetry;
+import framework.boardgame.GameArchive;
+import framework.boardgame.GameRecord;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+/**
+ * Position index over a Reversi game archive.
+ * Every position of every archived Reversi game (before each move, and the final position)
+ * is stored under the hash of its symmetry-canonical form plus the side to move, so all
+ * rotations and reflections of a position are found together.
+ *
+ * The index is an on-disk file of entries sorted by hash and split in 2^{@link #BUCKET_BITS}
+ * buckets on the top bits of the hash. A query memory-maps the file, binary searches one bucket
+ * and aggregates the matching entries, so it only touches the entries of that position.
+ *
+ * Index file layout (little-endian):
+ * <pre>
+ *  magic (int), bucket bits (int), entry count (long)
+ *  bucket starts (long[2^bits + 1])
+ *  keys (long[count]), values (long[count])
+ * </pre>
+ * A value packs the game number (high 32 bits), the next move in canonical coordinates
+ * (bits 8-15, {@link GameRecord#PASS} for a pass, {@link #NO_MOVE} at the end of the game)
+ * and the result for the side to move (bits 0-7, see {@link #LOSS}).
+ */
+public final class ReversiGameDatabase implements AutoCloseable {
+    private static final int MAGIC = 0x58444947; // "GIDX"
+    static final int BUCKET_BITS = 16;
+    private static final int BUCKETS = 1 << BUCKET_BITS;
+    private static final long HEADER_SIZE = 16 + 8L * (BUCKETS + 1);
+
+    static final int NO_MOVE = 0xFE;
+    static final int LOSS = 0;
+    static final int DRAW = 1;
+    static final int WIN = 2;
+    static final int UNFINISHED = 3;
+
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    private final Arena arena;
+    private final MemorySegment index;
+    private final long count;
+
+    private ReversiGameDatabase(Arena arena, MemorySegment index, long count) {
+        this.arena = arena;
+        this.index = index;
+        this.count = count;
+    }
+
+    /**
+     * Aggregated statistics of one position, seen from the side to move.
+     */
+    public static final class Statistics {
+        private int games;
+        private int wins;
+        private int draws;
+        private int losses;
+        private final int[] moveCounts = new int[64];
+
+        public int getGames() { return games; }
+        public int getWins() { return wins; }
+        public int getDraws() { return draws; }
+        public int getLosses() { return losses; }
+
+        /**
+         * Gets how often a move was played from this position
+         *
+         * @param square The square in the orientation of the queried position (row * 8 + col)
+         * @return The number of games that continued with that move
+         */
+        public int getMoveCount(int square) {
+            return moveCounts[square];
+        }
+    }
+
+    /**
+     * Builds the position index of all Reversi games in an archive.
+     * Games are replayed in parallel on all cores, and the buckets are sorted in parallel.
+     *
+     * @param archive The game archive
+     * @param indexFile The index file to write
+     * @return true if the index was written
+     */
+    public static boolean build(GameArchive archive, Path indexFile) {
+        int games = archive.size();
+
+        // 1. One entry per position: the positions before each move, plus the final position
+        long[] starts = new long[games + 1];
+        for (int game = 0; game < games; game++) {
+            starts[game + 1] = starts[game] + (isReversi(archive, game) ? archive.getMoveCount(game) + 1 : 0);
+        }
+        long total = starts[games];
+        if (total > Integer.MAX_VALUE - 8) {
+            return false;
+        }
+        int size = (int) total;
+        long[] keys = new long[size];
+        long[] values = new long[size];
+        IntStream.range(0, games).parallel()
+                .filter(game -> isReversi(archive, game))
+                .forEach(game -> replay(archive, game, (int) starts[game], keys, values));
+
+        // 2. Scatter the entries into buckets on the top bits of the hash
+        long[] bucketStarts = new long[BUCKETS + 1];
+        for (long key : keys) {
+            bucketStarts[(int) (key >>> (64 - BUCKET_BITS)) + 1]++;
+        }
+        for (int b = 0; b < BUCKETS; b++) {
+            bucketStarts[b + 1] += bucketStarts[b];
+        }
+        long[] sortedKeys = new long[size];
+        long[] sortedValues = new long[size];
+        long[] next = bucketStarts.clone();
+        for (int i = 0; i < size; i++) {
+            int target = (int) next[(int) (keys[i] >>> (64 - BUCKET_BITS))]++;
+            sortedKeys[target] = keys[i];
+            sortedValues[target] = values[i];
+        }
+
+        // 3. Sort every bucket; all keys in a bucket share their top bits
+        IntStream.range(0, BUCKETS).parallel()
+                .forEach(b -> sort(sortedKeys, sortedValues, (int) bucketStarts[b], (int) bucketStarts[b + 1] - 1));
+
+        return write(indexFile, bucketStarts, sortedKeys, sortedValues);
+    }
+
+    private static boolean isReversi(GameArchive archive, int game) {
+        return archive.getGameType(game) == GameRecord.REVERSI
+                && archive.getWidth(game) == 8 && archive.getHeight(game) == 8;
+    }
+
+    /**
+     * Replays one game on bitboards and fills its index entries
+     */
+    private static void replay(GameArchive archive, int game, int start, long[] keys, long[] values) {
+        int moveCount = archive.getMoveCount(game);
+        byte[] moves = new byte[moveCount];
+        archive.getMoves(game, moves);
+
+        boolean firstIsBlack = archive.getFirstSymbol(game) != 'W';
+        int result = archive.getResult(game);
+        int blackResult;
+        if (result == GameRecord.DRAW) {
+            blackResult = DRAW;
+        } else if (result == GameRecord.FIRST_WINS || result == GameRecord.SECOND_WINS) {
+            blackResult = (result == GameRecord.FIRST_WINS) == firstIsBlack ? WIN : LOSS;
+        } else {
+            blackResult = UNFINISHED;
+        }
+        int whiteResult = blackResult == WIN ? LOSS : blackResult == LOSS ? WIN : blackResult;
+
+        long black = ReversiBitboard.START_BLACK;
+        long white = ReversiBitboard.START_WHITE;
+        boolean blackToMove = true;
+        for (int i = 0; i <= moveCount; i++) {
+            BoardSymmetry.Canonical canonical = BoardSymmetry.canonical(black, white);
+            int move = i < moveCount ? moves[i] & 0xFF : NO_MOVE;
+            int storedMove = move < 64 ? canonical.toCanonical(move) : move;
+            keys[start + i] = ReversiBitboard.hash(canonical.getFirst(), canonical.getSecond(), blackToMove);
+            values[start + i] = (long) game << 32 | storedMove << 8 | (blackToMove ? blackResult : whiteResult);
+
+            if (move < 64) {
+                if (blackToMove) {
+                    long flipped = ReversiBitboard.flips(black, white, move);
+                    black |= flipped | 1L << move;
+                    white &= ~flipped;
+                } else {
+                    long flipped = ReversiBitboard.flips(white, black, move);
+                    white |= flipped | 1L << move;
+                    black &= ~flipped;
+                }
+            }
+            blackToMove = !blackToMove;
+        }
+    }
+
+    /**
+     * Sorts a range of entries by key (quicksort with insertion sort for short ranges)
+     */
+    private static void sort(long[] keys, long[] values, int lo, int hi) {
+        while (hi - lo > 16) {
+            long pivot = keys[(lo + hi) >>> 1];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (keys[i] < pivot) {
+                    i++;
+                }
+                while (keys[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(keys, values, i++, j--);
+                }
+            }
+            // Recurse into the smaller half, loop on the larger one
+            if (j - lo < hi - i) {
+                sort(keys, values, lo, j);
+                lo = i;
+            } else {
+                sort(keys, values, i, hi);
+                hi = j;
+            }
+        }
+        for (int i = lo + 1; i <= hi; i++) {
+            for (int j = i; j > lo && keys[j - 1] > keys[j]; j--) {
+                swap(keys, values, j - 1, j);
+            }
+        }
+    }
+
+    private static void swap(long[] keys, long[] values, int a, int b) {
+        long key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+        long value = values[a];
+        values[a] = values[b];
+        values[b] = value;
+    }
+
+    private static boolean write(Path indexFile, long[] bucketStarts, long[] keys, long[] values) {
+        long size = HEADER_SIZE + 16L * keys.length;
+        Path temp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try (Arena writeArena = Arena.ofConfined()) {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MemorySegment out = channel.map(FileChannel.MapMode.READ_WRITE, 0, size, writeArena);
+                out.set(INT, 0, MAGIC);
+                out.set(INT, 4, BUCKET_BITS);
+                out.set(LONG, 8, keys.length);
+                MemorySegment.copy(bucketStarts, 0, out, LONG, 16, bucketStarts.length);
+                MemorySegment.copy(keys, 0, out, LONG, HEADER_SIZE, keys.length);
+                MemorySegment.copy(values, 0, out, LONG, HEADER_SIZE + 8L * keys.length, values.length);
+                out.force();
+            }
+            Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Opens a position index written by {@link #build}
+     *
+     * @param indexFile The index file
+     * @return The database, or null if the file is missing or not an index
+     */
+    public static ReversiGameDatabase open(Path indexFile) {
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size >= HEADER_SIZE) {
+                MemorySegment index = channel.map(FileChannel.MapMode.READ_ONLY, 0, size, arena);
+                long count = index.get(LONG, 8);
+                if (index.get(INT, 0) == MAGIC && index.get(INT, 4) == BUCKET_BITS
+                        && size == HEADER_SIZE + 16 * count) {
+                    return new ReversiGameDatabase(arena, index, count);
+                }
+            }
+        } catch (IOException e) {
+            // Fall through: no usable index
+        }
+        arena.close();
+        return null;
+    }
+
+    /**
+     * Gets the statistics of all archived games that reached a position (or one of its
+     * rotations and reflections)
+     *
+     * @param black The black discs
+     * @param white The white discs
+     * @param blackToMove true if black is to move
+     * @return The aggregated results and move frequencies, seen from the side to move
+     */
+    public Statistics query(long black, long white, boolean blackToMove) {
+        BoardSymmetry.Canonical canonical = BoardSymmetry.canonical(black, white);
+        long key = ReversiBitboard.hash(canonical.getFirst(), canonical.getSecond(), blackToMove);
+        Statistics stats = new Statistics();
+        for (long i = firstEntry(key); i < count && keyAt(i) == key; i++) {
+            long value = valueAt(i);
+            stats.games++;
+            int result = (int) (value & 0xFF);
+            if (result == WIN) {
+                stats.wins++;
+            } else if (result == DRAW) {
+                stats.draws++;
+            } else if (result == LOSS) {
+                stats.losses++;
+            }
+            int move = (int) (value >>> 8) & 0xFF;
+            if (move < 64) {
+                stats.moveCounts[canonical.fromCanonical(move)]++;
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Gets the statistics of a position on a game board
+     *
+     * @param game The game
+     * @param playerToMove The player to move ('B' or 'W')
+     * @return The aggregated results and move frequencies
+     */
+    public Statistics query(Reversi game, char playerToMove) {
+        return query(ReversiBitboard.fromBoard(game.getBord(), 'B'),
+                ReversiBitboard.fromBoard(game.getBord(), 'W'), playerToMove == 'B');
+    }
+
+    /**
+     * Finds the archived games that reached a position
+     *
+     * @param black The black discs
+     * @param white The white discs
+     * @param blackToMove true if black is to move
+     * @param limit The maximum number of games to return
+     * @return The game numbers in the archive
+     */
+    public int[] findGames(long black, long white, boolean blackToMove, int limit) {
+        BoardSymmetry.Canonical canonical = BoardSymmetry.canonical(black, white);
+        long key = ReversiBitboard.hash(canonical.getFirst(), canonical.getSecond(), blackToMove);
+        long first = firstEntry(key);
+        long last = first;
+        while (last < count && last - first < limit && keyAt(last) == key) {
+            last++;
+        }
+        int[] games = new int[(int) (last - first)];
+        for (int i = 0; i < games.length; i++) {
+            games[i] = (int) (valueAt(first + i) >>> 32);
+        }
+        return games;
+    }
+
+    /**
+     * Binary searches the bucket of a key for its first entry
+     */
+    private long firstEntry(long key) {
+        int bucket = (int) (key >>> (64 - BUCKET_BITS));
+        long lo = index.get(LONG, 16 + 8L * bucket);
+        long hi = index.get(LONG, 16 + 8L * (bucket + 1));
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            if (keyAt(mid) < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private long keyAt(long i) {
+        return index.get(LONG, HEADER_SIZE + 8 * i);
+    }
+
+    private long valueAt(long i) {
+        return index.get(LONG, HEADER_SIZE + 8 * (count + i));
+    }
+
+    /**
+     * Gets the number of indexed positions
+     */
+    public long size() {
+        return count;
+    }
+
+    @Override
+    public void close() {
+        arena.close();
+    }
+}
@@ -15,6 +15,7 @@ import java.util.*;
  */
 public class ReversiMinimax extends AbstractReversiAI {
     private static final int SEARCH_DEPTH = 5;
+    private static final long CORNER_SQUARES = 0x8100000000000081L;
 
     /**
      * Finds the best move for the AI player using Minimax with alpha-beta pruning.
@@ -25,6 +26,7 @@ public class ReversiMinimax extends AbstractReversiAI {
      */
     public Position findBestMove(Reversi game, char player) {
         long startTime = System.currentTimeMillis();
+        lastNodeCount = 0;
 
         char opponent = getOpponent(player);
         Position bestMove = null;
@@ -34,7 +36,9 @@ public class ReversiMinimax extends AbstractReversiAI {
         List<Position> validMoves = getValidMovesAsPositions(game, player);
 
         if (validMoves.isEmpty()) {
-            System.out.println("[Minimax AI] No valid moves available for player " + player);
+            if (verbose) {
+                System.out.println("[Minimax AI] No valid moves available for player " + player);
+            }
             return null;
         }
         
@@ -43,28 +47,35 @@ public class ReversiMinimax extends AbstractReversiAI {
                                    getMoveScore(b.getRow(), b.getColumn(), player, opponent));
         Collections.reverse(validMoves); // Descending order
         
-        // Minimax search with alpha-beta pruning
-        for (Position move : validMoves) {
-            Reversi tempGame = copyGame(game);
-            tempGame.doMove(move.getRow(), move.getColumn(), player);
-
-            int score = minimax(tempGame, SEARCH_DEPTH - 1, true, player, opponent,
-                    Integer.MIN_VALUE, Integer.MAX_VALUE);
-            
-            if (score > bestScore) {
-                bestScore = score;
-                bestMove = move;
+        // Minimax search with alpha-beta pruning, on one pooled copy that is reset with undo after every move
+        Reversi searchGame = SEARCH_GAMES.acquire(game.snapshot());
+        try {
+            for (Position move : validMoves) {
+                searchGame.doMove(move.getRow(), move.getColumn(), player);
+                int score = minimax(searchGame, SEARCH_DEPTH - 1, true, player, opponent,
+                        Integer.MIN_VALUE, Integer.MAX_VALUE);
+                searchGame.undo();
+
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestMove = move;
+                }
             }
+        } finally {
+            SEARCH_GAMES.release(searchGame);
         }
 
         long endTime = System.currentTimeMillis();
         long duration = endTime - startTime;
 
         // Log AI move information
-        System.out.println("=== MINIMAX AI MOVE ===");
-        System.out.println("  Search Depth: " + SEARCH_DEPTH);
-        System.out.println("  Time taken: " + duration + " ms");
-        System.out.println("=======================");
+        if (verbose) {
+            System.out.println("=== MINIMAX AI MOVE ===");
+            System.out.println("  Search Depth: " + SEARCH_DEPTH);
+            System.out.println("  Nodes: " + lastNodeCount);
+            System.out.println("  Time taken: " + duration + " ms");
+            System.out.println("=======================");
+        }
 
         return bestMove;
     }
@@ -74,6 +85,7 @@ public class ReversiMinimax extends AbstractReversiAI {
      */
     private int minimax(Reversi game, int depth, boolean isMaximizing, char aiPlayer, 
                        char opponent, int alpha, int beta) {
+        lastNodeCount++;
         // Terminal node or depth reached
         if (depth == 0) {
             return evaluatePosition(game, aiPlayer, opponent);
@@ -103,10 +115,9 @@ public class ReversiMinimax extends AbstractReversiAI {
         if (isMaximizing) {
             int maxEval = Integer.MIN_VALUE;
             for (Position move : validMoves) {
-                Reversi tempGame = copyGame(game);
-                tempGame.doMove(move.getRow(), move.getColumn(), currentPlayer);
-
-                int eval = minimax(tempGame, depth - 1, false, aiPlayer, opponent, alpha, beta);
+                game.doMove(move.getRow(), move.getColumn(), currentPlayer);
+                int eval = minimax(game, depth - 1, false, aiPlayer, opponent, alpha, beta);
+                game.undo();
                 maxEval = Math.max(maxEval, eval);
                 alpha = Math.max(alpha, eval);
                 
@@ -116,10 +127,9 @@ public class ReversiMinimax extends AbstractReversiAI {
         } else {
             int minEval = Integer.MAX_VALUE;
             for (Position move : validMoves) {
-                Reversi tempGame = copyGame(game);
-                tempGame.doMove(move.getRow(), move.getColumn(), currentPlayer);
-
-                int eval = minimax(tempGame, depth - 1, true, aiPlayer, opponent, alpha, beta);
+                game.doMove(move.getRow(), move.getColumn(), currentPlayer);
+                int eval = minimax(game, depth - 1, true, aiPlayer, opponent, alpha, beta);
+                game.undo();
                 minEval = Math.min(minEval, eval);
                 beta = Math.min(beta, eval);
                 
@@ -133,28 +143,97 @@ public class ReversiMinimax extends AbstractReversiAI {
      * Evaluates a position using a heuristic evaluation function.
      */
     private int evaluatePosition(Reversi game, char aiPlayer, char opponent) {
+        return evaluate(ReversiBitboard.fromBoard(game.getBord(), aiPlayer),
+                ReversiBitboard.fromBoard(game.getBord(), opponent));
+    }
+
+    /**
+     * Heuristic evaluation on bitboards, also used by the hybrid MCTS.
+     * The score is symmetric: evaluate(own, opp) == -evaluate(opp, own).
+     *
+     * @param own The discs of the player the score is for
+     * @param opp The discs of the opponent
+     * @return The evaluation score
+     */
+    static int evaluate(long own, long opp) {
         int score = 0;
-        
+
         // 1. Positional weights
-        score += getPositionalScore(game, aiPlayer, opponent);
-        
+        for (long m = own; m != 0; m &= m - 1) {
+            int square = Long.numberOfTrailingZeros(m);
+            score += POSITION_WEIGHTS[square / BOARD_SIZE][square % BOARD_SIZE];
+        }
+        for (long m = opp; m != 0; m &= m - 1) {
+            int square = Long.numberOfTrailingZeros(m);
+            score -= POSITION_WEIGHTS[square / BOARD_SIZE][square % BOARD_SIZE];
+        }
+
         // 2. Mobility (number of legal moves)
-        int aiMobility = getValidMovesAsPositions(game, aiPlayer).size();
-        int opponentMobility = getValidMovesAsPositions(game, opponent).size();
+        int aiMobility = Long.bitCount(ReversiBitboard.legalMoves(own, opp));
+        int opponentMobility = Long.bitCount(ReversiBitboard.legalMoves(opp, own));
         score += (aiMobility - opponentMobility) * 10;
-        
+
         // 3. Corner control (very important)
-        score += getCornerScore(game, aiPlayer, opponent) * 50;
-        
+        score += (Long.bitCount(own & CORNER_SQUARES) - Long.bitCount(opp & CORNER_SQUARES)) * 50;
+
         // 4. Stability (discs that can't be flipped)
-        score += getStabilityScore(game, aiPlayer, opponent) * 5;
-        
+        score += (Long.bitCount(ReversiBitboard.stableDiscs(own))
+                - Long.bitCount(ReversiBitboard.stableDiscs(opp))) * 5;
+
         // 5. Frontier discs (discs adjacent to empty spaces - fewer is better)
-        score -= getFrontierScore(game, aiPlayer, opponent) * 3;
-        
+        long nextToEmpty = ReversiBitboard.neighbours(~(own | opp));
+        score -= (Long.bitCount(own & nextToEmpty) - Long.bitCount(opp & nextToEmpty)) * 3;
+
         return score;
     }
 
+    /**
+     * Alpha-beta search (negamax form) on bitboards with the same evaluation and end-of-game
+     * scores as the main search. Used for shallow searches at the leaves of the hybrid MCTS.
+     *
+     * @param own The discs of the player to move
+     * @param opp The discs of the opponent
+     * @param depth The remaining depth; a pass uses one ply, like in minimax
+     * @return The score for the player to move
+     */
+    static int search(long own, long opp, int depth, int alpha, int beta) {
+        if (depth == 0) {
+            return evaluate(own, opp);
+        }
+
+        long moves = ReversiBitboard.legalMoves(own, opp);
+        if (moves == 0) {
+            if (ReversiBitboard.legalMoves(opp, own) == 0) {
+                // Game over - same scores as evaluateGameEnd
+                int diff = Long.bitCount(own) - Long.bitCount(opp);
+                return diff > 0 ? 10000 + diff : diff < 0 ? -10000 + diff : 0;
+            }
+            return -search(opp, own, depth - 1, -beta, -alpha);
+        }
+
+        // Corners first for better pruning
+        int best = -Integer.MAX_VALUE;
+        long ordered = moves & CORNER_SQUARES;
+        for (int pass = 0; pass < 2; pass++) {
+            for (long m = ordered; m != 0; m &= m - 1) {
+                int square = Long.numberOfTrailingZeros(m);
+                long flipped = ReversiBitboard.flips(own, opp, square);
+                int score = -search(opp & ~flipped, own | flipped | (1L << square), depth - 1, -beta, -alpha);
+                if (score > best) {
+                    best = score;
+                    if (score > alpha) {
+                        alpha = score;
+                        if (alpha >= beta) {
+                            return best; // Cutoff
+                        }
+                    }
+                }
+            }
+            ordered = moves & ~CORNER_SQUARES;
+        }
+        return best;
+    }
+
     /**
      * Returns a quick heuristic score for move ordering.
      * Higher score = better move.
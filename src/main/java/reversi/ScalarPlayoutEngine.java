@@ -0,0 +1,46 @@
+package reversi;
+
+import java.util.SplittableRandom;
+
+/**
+ * Plays the games of a batch one after another with the bitboard helpers
+ */
+final class ScalarPlayoutEngine implements PlayoutEngine {
+
+    @Override
+    public void playout(long[] black, long[] white, boolean[] blackToMove, int count, SplittableRandom random) {
+        for (int game = 0; game < count; game++) {
+            boolean blackMoves = blackToMove[game];
+            long own = blackMoves ? black[game] : white[game];
+            long opp = blackMoves ? white[game] : black[game];
+            int passCount = 0;
+            while (passCount < 2) {
+                long moves = ReversiBitboard.legalMoves(own, opp);
+                if (moves != 0) {
+                    passCount = 0;
+                    int skip = random.nextInt(Long.bitCount(moves));
+                    for (int i = 0; i < skip; i++) {
+                        moves &= moves - 1;
+                    }
+                    int square = Long.numberOfTrailingZeros(moves);
+                    long flipped = ReversiBitboard.flips(own, opp, square);
+                    own |= flipped | (1L << square);
+                    opp &= ~flipped;
+                } else {
+                    passCount++;
+                }
+                long swap = own;
+                own = opp;
+                opp = swap;
+                blackMoves = !blackMoves;
+            }
+            black[game] = blackMoves ? own : opp;
+            white[game] = blackMoves ? opp : own;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+}
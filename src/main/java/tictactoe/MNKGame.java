@@ -0,0 +1,236 @@
+package tictactoe;
+
+import framework.boardgame.AbstractBoardGame;
+import framework.boardgame.GameStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * m,n,k-spel: een bord van width x height waarop k op een rij (horizontaal, verticaal of diagonaal) wint
+ * TicTacToe is het 3,3,3-spel, Gomoku bijvoorbeeld 15,15,5
+ *
+ * Het bord wordt bij het maken opgedeeld in alle lijnstukken (windows) van k vakjes.
+ * Per lijnstuk wordt bijgehouden hoeveel stenen X en O erin hebben, zodat na een zet alleen
+ * de lijnstukken door dat vakje gecontroleerd hoeven te worden.
+ */
+public class MNKGame extends AbstractBoardGame {
+    // Richtingen als {kolom stap, rij stap}: horizontaal, verticaal, diagonaal, anti-diagonaal
+    private static final int[][] DIRECTIONS = {{1, 0}, {0, 1}, {1, 1}, {-1, 1}};
+
+    private final int k;
+    private final int[][] windows;          // Alle lijnstukken van k vakjes
+    private final int[][] windowsThrough;   // Per vakje: de indices van de lijnstukken waar het in ligt
+    private final int[] xCounts;            // Per lijnstuk: aantal stenen van X
+    private final int[] oCounts;            // Per lijnstuk: aantal stenen van O
+    private int stones = 0;
+
+    /**
+     * Constructor - maakt een leeg m,n,k-bord
+     * @param width De breedte van het bord (m)
+     * @param height De hoogte van het bord (n)
+     * @param k Het aantal op een rij om te winnen (wordt begrensd op de grootste zijde)
+     */
+    public MNKGame(int width, int height, int k) {
+        super(width, height, ' ');
+        this.k = Math.max(1, Math.min(k, Math.max(width, height)));
+
+        List<int[]> lines = new ArrayList<>();
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                for (int[] dir : DIRECTIONS) {
+                    int endCol = col + dir[0] * (this.k - 1);
+                    int endRow = row + dir[1] * (this.k - 1);
+                    if (endCol < 0 || endCol >= width || endRow >= height) {
+                        continue;
+                    }
+                    int[] window = new int[this.k];
+                    for (int i = 0; i < this.k; i++) {
+                        window[i] = (row + dir[1] * i) * width + col + dir[0] * i;
+                    }
+                    lines.add(window);
+                }
+            }
+        }
+        windows = lines.toArray(new int[0][]);
+
+        int[] through = new int[boardSize];
+        for (int[] window : windows) {
+            for (int cell : window) {
+                through[cell]++;
+            }
+        }
+        windowsThrough = new int[boardSize][];
+        for (int cell = 0; cell < boardSize; cell++) {
+            windowsThrough[cell] = new int[through[cell]];
+            through[cell] = 0;
+        }
+        for (int w = 0; w < windows.length; w++) {
+            for (int cell : windows[w]) {
+                windowsThrough[cell][through[cell]++] = w;
+            }
+        }
+        xCounts = new int[windows.length];
+        oCounts = new int[windows.length];
+    }
+
+    /**
+     * Voert een zet uit en controleert alleen de lijnstukken door dit vakje op winst
+     * Na het einde van het spel worden zetten genegeerd, zodat de uitslag niet meer verandert
+     * @param pos De positie (index)
+     * @param player De speler ('X' of 'O')
+     */
+    @Override
+    public void doMove(int pos, char player) {
+        if (!isFree(pos) || (player != 'X' && player != 'O') || isGameOver()) {
+            return;
+        }
+        beginMove(pos, player);
+        setCell(pos, player);
+        int[] counts = player == 'X' ? xCounts : oCounts;
+        boolean won = false;
+        for (int w : windowsThrough[pos]) {
+            if (counts[w] == k) {
+                won = true;
+            }
+        }
+        if (won) {
+            status = player == 'X' ? GameStatus.X_WINS : GameStatus.O_WINS;
+        } else {
+            status = stones == boardSize ? GameStatus.DRAW : GameStatus.IN_PROGRESS;
+        }
+        endMove();
+    }
+
+    /**
+     * Zet een symbool op een vakje en werkt de tellingen van de lijnstukken bij
+     * (ook bij undo en redo)
+     */
+    @Override
+    protected void setCell(int pos, char symbol) {
+        char old = board[pos];
+        if (old == symbol) {
+            return;
+        }
+        if (old == 'X' || old == 'O') {
+            int[] counts = old == 'X' ? xCounts : oCounts;
+            for (int w : windowsThrough[pos]) {
+                counts[w]--;
+            }
+            stones--;
+        }
+        if (symbol == 'X' || symbol == 'O') {
+            int[] counts = symbol == 'X' ? xCounts : oCounts;
+            for (int w : windowsThrough[pos]) {
+                counts[w]++;
+            }
+            stones++;
+        }
+        super.setCell(pos, symbol);
+    }
+
+    @Override
+    public void restoreBoard(char[] savedBoard, GameStatus savedStatus) {
+        super.restoreBoard(savedBoard, savedStatus);
+        recount();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        recount();
+    }
+
+    /**
+     * Berekent alle tellingen opnieuw vanuit het bord
+     */
+    private void recount() {
+        Arrays.fill(xCounts, 0);
+        Arrays.fill(oCounts, 0);
+        stones = 0;
+        for (int cell = 0; cell < boardSize; cell++) {
+            if (board[cell] == emptySymbol) {
+                continue;
+            }
+            stones++;
+            int[] counts = board[cell] == 'X' ? xCounts : oCounts;
+            for (int w : windowsThrough[cell]) {
+                counts[w]++;
+            }
+        }
+    }
+
+    /**
+     * Bepaalt de status vanuit de tellingen van alle lijnstukken
+     * Nodig als er geen laatste zet is, bijvoorbeeld na parseNotation; isWin leest zelf alleen de status
+     */
+    @Override
+    protected void updateStatus() {
+        for (int w = 0; w < windows.length; w++) {
+            if (xCounts[w] == k) {
+                status = GameStatus.X_WINS;
+                return;
+            }
+            if (oCounts[w] == k) {
+                status = GameStatus.O_WINS;
+                return;
+            }
+        }
+        status = stones == boardSize ? GameStatus.DRAW : GameStatus.IN_PROGRESS;
+    }
+
+    /**
+     * Controleert of een speler k op een rij heeft (bijgehouden door doMove)
+     * @param player De speler om te controleren ('X' of 'O')
+     * @return true als de speler heeft gewonnen
+     */
+    @Override
+    public boolean isWin(char player) {
+        return status == (player == 'X' ? GameStatus.X_WINS : GameStatus.O_WINS);
+    }
+
+    /**
+     * Controleert of het spel gelijkspel is (bord vol zonder winnaar)
+     * @return true als het bord vol is zonder winnaar
+     */
+    @Override
+    public boolean isDraw() {
+        return status == GameStatus.DRAW;
+    }
+
+    /**
+     * Krijg het aantal op een rij dat nodig is om te winnen
+     * @return k
+     */
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * Krijg het aantal stenen op het bord
+     * @return Het aantal bezette vakjes
+     */
+    public int getStoneCount() {
+        return stones;
+    }
+
+    int getWindowCount() {
+        return windows.length;
+    }
+
+    int[] getWindow(int w) {
+        return windows[w];
+    }
+
+    int[] getWindowsThrough(int cell) {
+        return windowsThrough[cell];
+    }
+
+    /**
+     * Krijg het aantal stenen van een speler in een lijnstuk
+     */
+    int getCount(int w, char player) {
+        return player == 'X' ? xCounts[w] : oCounts[w];
+    }
+}
@@ -0,0 +1,363 @@
+package tictactoe;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * AI voor m,n,k-spellen (zoals Gomoku) op basis van threat-space search
+ * In plaats van alle zetten te doorzoeken, zoekt de AI alleen reeksen dreigingen die de tegenstander
+ * moet beantwoorden:
+ * - een "vier": na de zet kan de aanvaller met één zet winnen, de verdediger moet dat vakje blokkeren
+ * - een "drie": na de zet kan de aanvaller een dubbele vier maken; dit telt alleen als de verdediger
+ *   zelf geen vier kan maken, en dan worden alle verdedigingen geprobeerd
+ * Een reeks wint als hij eindigt in twee winnende vakjes tegelijk.
+ * Zonder winnende reeks blokkeert de AI de reeks van de tegenstander, of kiest een zet met een
+ * snelle heuristiek op de lijnstukken. Een limiet op het aantal knopen houdt de AI snel op grote borden.
+ */
+public class MNKThreatSpaceAI {
+    private static final int DEFAULT_MAX_DEPTH = 10;        // Aanvalszetten in één reeks
+    private static final int DEFAULT_MAX_THREES = 2;        // Waarvan maximaal zoveel drieën
+    private static final int DEFAULT_NODE_BUDGET = 20_000;
+    private static final int DEFENCE_CANDIDATES = 12;       // Zetten die geprobeerd worden tegen een winnende reeks
+
+    private int maxDepth = DEFAULT_MAX_DEPTH;
+    private int maxThrees = DEFAULT_MAX_THREES;
+    private int nodeBudget = DEFAULT_NODE_BUDGET;
+
+    private MNKGame work;   // Eigen kopie van het bord om op te zoeken
+    private int nodes;
+
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = Math.max(1, maxDepth);
+    }
+
+    public void setMaxThrees(int maxThrees) {
+        this.maxThrees = Math.max(0, maxThrees);
+    }
+
+    /**
+     * Stelt het maximale aantal knopen per dreigingszoektocht in
+     */
+    public void setNodeBudget(int nodeBudget) {
+        this.nodeBudget = Math.max(1, nodeBudget);
+    }
+
+    /**
+     * Bepaalt de beste zet voor de AI
+     * @param game Het huidige m,n,k-spel
+     * @param aiPlayer Het symbool van de AI-speler ('X' of 'O')
+     * @param opponent Het symbool van de tegenstander
+     * @return De index van de beste zet, of -1 als geen zet mogelijk is
+     */
+    public int findBestMove(MNKGame game, char aiPlayer, char opponent) {
+        if (game.isGameOver() || game.getStoneCount() == game.getBoardSize()) {
+            return -1;
+        }
+        if (work == null || work.getBoardWidth() != game.getBoardWidth()
+                || work.getBoardHeight() != game.getBoardHeight() || work.getK() != game.getK()) {
+            work = new MNKGame(game.getBoardWidth(), game.getBoardHeight(), game.getK());
+        }
+        work.restoreBoard(game.copyBoard(), game.getStatus());
+
+        if (work.getStoneCount() == 0) {
+            return (work.getBoardHeight() / 2) * work.getBoardWidth() + work.getBoardWidth() / 2;
+        }
+
+        // 1. Zelf winnen, 2. winst van de tegenstander blokkeren
+        int win = firstGain(aiPlayer, opponent);
+        if (win >= 0) {
+            return win;
+        }
+        int block = firstGain(opponent, aiPlayer);
+        if (block >= 0) {
+            return block;
+        }
+
+        // 3. Een eigen winnende dreigingsreeks
+        nodes = 0;
+        int attack = threatSearch(aiPlayer, opponent, maxDepth, maxThrees);
+        if (attack >= 0) {
+            return attack;
+        }
+
+        // 4. Een winnende reeks van de tegenstander breken, 5. anders de heuristiek
+        List<Integer> candidates = rankCandidates(aiPlayer, opponent);
+        nodes = 0;
+        int threat = threatSearch(opponent, aiPlayer, maxDepth, maxThrees);
+        if (threat >= 0) {
+            List<Integer> defences = new ArrayList<>();
+            defences.add(threat);
+            for (int i = 0; i < candidates.size() && defences.size() <= DEFENCE_CANDIDATES; i++) {
+                if (candidates.get(i) != threat) {
+                    defences.add(candidates.get(i));
+                }
+            }
+            for (int move : defences) {
+                work.doMove(move, aiPlayer);
+                nodes = 0;
+                boolean stillLost = threatSearch(opponent, aiPlayer, maxDepth, maxThrees) >= 0;
+                work.undoMove(move);
+                if (!stillLost) {
+                    return move;
+                }
+            }
+        }
+        return candidates.get(0);
+    }
+
+    /**
+     * Zoekt een winnende reeks dreigingen voor de aanvaller
+     * @param depth Het aantal aanvalszetten dat nog mag
+     * @param threes Het aantal drieën dat nog mag
+     * @return De eerste zet van een winnende reeks, of -1 als er geen gevonden is
+     */
+    private int threatSearch(char attacker, char defender, int depth, int threes) {
+        if (depth <= 0 || ++nodes > nodeBudget) {
+            return -1;
+        }
+        // Drieën dwingen alleen als de verdediger niet met een eigen vier kan terugslaan
+        boolean threesAllowed = threes > 0 && depth > 1 && !hasFourMove(defender, attacker);
+        int k = work.getK();
+
+        for (int move : attackCandidates(attacker, defender, threesAllowed ? k - 3 : k - 2)) {
+            work.doMove(move, attacker);
+            boolean wins = false;
+            List<Integer> gains = gainsThrough(move, attacker, defender);
+            if (gains.size() >= 2) {
+                wins = true; // Twee winnende vakjes: de verdediger kan er maar één blokkeren
+            } else if (gains.size() == 1) {
+                int forced = gains.get(0);
+                work.doMove(forced, defender);
+                wins = gainsThrough(forced, defender, attacker).isEmpty()
+                        && threatSearch(attacker, defender, depth - 1, threes) >= 0;
+                work.undoMove(forced);
+            } else if (threesAllowed) {
+                List<Integer> doubleFours = doubleFourMoves(move, attacker, defender);
+                if (!doubleFours.isEmpty()) {
+                    wins = true;
+                    for (int defence : defences(move, doubleFours, attacker, defender)) {
+                        work.doMove(defence, defender);
+                        boolean holds = gainsThrough(defence, defender, attacker).isEmpty()
+                                && threatSearch(attacker, defender, depth - 1, threes - 1) >= 0;
+                        work.undoMove(defence);
+                        if (!holds) {
+                            wins = false;
+                            break;
+                        }
+                    }
+                }
+            }
+            work.undoMove(move);
+            if (wins) {
+                return move;
+            }
+            if (nodes > nodeBudget) {
+                break;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Vindt een vakje waarmee de speler direct wint
+     * @return Het vakje, of -1
+     */
+    private int firstGain(char player, char other) {
+        int needed = work.getK() - 1;
+        for (int w = 0; w < work.getWindowCount(); w++) {
+            if (work.getCount(w, player) == needed && work.getCount(w, other) == 0) {
+                return emptyCell(w);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Controleert of een speler ergens een vier kan maken
+     */
+    private boolean hasFourMove(char player, char other) {
+        int needed = work.getK() - 2;
+        for (int w = 0; w < work.getWindowCount(); w++) {
+            if (work.getCount(w, player) >= needed && work.getCount(w, other) == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Vindt de winnende vakjes van een speler in de lijnstukken door een vakje
+     */
+    private List<Integer> gainsThrough(int cell, char player, char other) {
+        List<Integer> gains = new ArrayList<>(2);
+        int needed = work.getK() - 1;
+        for (int w : work.getWindowsThrough(cell)) {
+            if (work.getCount(w, player) == needed && work.getCount(w, other) == 0) {
+                int gain = emptyCell(w);
+                if (gain >= 0 && !gains.contains(gain)) {
+                    gains.add(gain);
+                }
+            }
+        }
+        return gains;
+    }
+
+    /**
+     * Vindt de zetten (in de lijnstukken door een vakje) waarmee de aanvaller twee winnende vakjes maakt
+     */
+    private List<Integer> doubleFourMoves(int cell, char attacker, char defender) {
+        List<Integer> result = new ArrayList<>();
+        for (int w : work.getWindowsThrough(cell)) {
+            if (work.getCount(w, defender) != 0) {
+                continue;
+            }
+            for (int candidate : work.getWindow(w)) {
+                if (!work.isFree(candidate) || result.contains(candidate)) {
+                    continue;
+                }
+                work.doMove(candidate, attacker);
+                if (gainsThrough(candidate, attacker, defender).size() >= 2) {
+                    result.add(candidate);
+                }
+                work.undoMove(candidate);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Vindt alle zetten van de verdediger die een drie onschadelijk maken:
+     * daarna kan de aanvaller met geen van de gevonden zetten nog een dubbele vier maken
+     */
+    private List<Integer> defences(int cell, List<Integer> doubleFours, char attacker, char defender) {
+        List<Integer> candidates = new ArrayList<>();
+        addEmptyCells(cell, candidates);
+        for (int move : doubleFours) {
+            addEmptyCells(move, candidates);
+        }
+
+        List<Integer> result = new ArrayList<>();
+        for (int defence : candidates) {
+            work.doMove(defence, defender);
+            boolean stopped = true;
+            for (int move : doubleFours) {
+                if (!work.isFree(move)) {
+                    continue;
+                }
+                work.doMove(move, attacker);
+                boolean threat = gainsThrough(move, attacker, defender).size() >= 2;
+                work.undoMove(move);
+                if (threat) {
+                    stopped = false;
+                    break;
+                }
+            }
+            work.undoMove(defence);
+            if (stopped) {
+                result.add(defence);
+            }
+        }
+        return result;
+    }
+
+    private void addEmptyCells(int cell, List<Integer> cells) {
+        for (int w : work.getWindowsThrough(cell)) {
+            for (int c : work.getWindow(w)) {
+                if (work.isFree(c) && !cells.contains(c)) {
+                    cells.add(c);
+                }
+            }
+        }
+    }
+
+    /**
+     * Vindt de vrije vakjes in lijnstukken met minstens minCount stenen van de aanvaller en geen van de
+     * verdediger, de vakjes met de meeste eigen stenen eromheen eerst
+     */
+    private List<Integer> attackCandidates(char attacker, char defender, int minCount) {
+        minCount = Math.max(1, minCount);
+        List<Integer> cells = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        for (int cell = 0; cell < work.getBoardSize(); cell++) {
+            if (!work.isFree(cell)) {
+                continue;
+            }
+            int weight = 0;
+            boolean useful = false;
+            for (int w : work.getWindowsThrough(cell)) {
+                if (work.getCount(w, defender) == 0) {
+                    int count = work.getCount(w, attacker);
+                    weight += count * count;
+                    useful |= count >= minCount;
+                }
+            }
+            if (useful) {
+                cells.add(cell);
+                weights.add(weight);
+            }
+        }
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < cells.size(); i++) {
+            order.add(i);
+        }
+        order.sort((a, b) -> Integer.compare(weights.get(b), weights.get(a)));
+        List<Integer> result = new ArrayList<>(cells.size());
+        for (int i : order) {
+            result.add(cells.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Sorteert de vrije vakjes op een snelle heuristiek: elk lijnstuk dat nog door één speler
+     * gewonnen kan worden telt mee, zwaarder naarmate die speler er meer stenen in heeft
+     */
+    private List<Integer> rankCandidates(char aiPlayer, char opponent) {
+        List<Integer> cells = new ArrayList<>();
+        List<Long> scores = new ArrayList<>();
+        for (int cell = 0; cell < work.getBoardSize(); cell++) {
+            if (!work.isFree(cell)) {
+                continue;
+            }
+            long score = 0;
+            for (int w : work.getWindowsThrough(cell)) {
+                int own = work.getCount(w, aiPlayer);
+                int opp = work.getCount(w, opponent);
+                if (opp == 0) {
+                    score += 1L << (3 * own);          // Eigen lijn uitbouwen
+                }
+                if (own == 0) {
+                    score += (1L << (3 * opp)) - 1;    // Lijn van de tegenstander blokkeren
+                }
+            }
+            cells.add(cell);
+            scores.add(score);
+        }
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < cells.size(); i++) {
+            order.add(i);
+        }
+        order.sort((a, b) -> Long.compare(scores.get(b), scores.get(a)));
+        List<Integer> result = new ArrayList<>(cells.size());
+        for (int i : order) {
+            result.add(cells.get(i));
+        }
+        return result;
+    }
+
+    private int emptyCell(int w) {
+        for (int cell : work.getWindow(w)) {
+            if (work.isFree(cell)) {
+                return cell;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Krijg het aantal knopen van de laatste dreigingszoektocht
+     */
+    public int getNodes() {
+        return nodes;
+    }
+}
@@ -6,18 +6,117 @@ import framework.ai.AbstractMinimaxAI;
  * MinimaxAI klasse voor TicTacToe
  * Gebruikt het framework voor herbruikbare AI functionaliteit
  * Kan ook gebruikt worden voor andere bordspellen zoals Reversi
+ *
+ * Voor TicTacToe wordt minimax niet meer tijdens het spel uitgevoerd: bij het laden van de klasse
+ * wordt voor elk 3x3 bord de beste zet berekend. Een bord wordt genummerd in base 3
+ * (vakje i telt mee als cel * 3^i, met 0 = leeg, 1 = AI, 2 = tegenstander),
+ * zodat bestMove alleen nog een opzoeking in een array is.
  */
 public class MinimaxAI extends AbstractMinimaxAI {
+    private static final int CELLS = 9;
+    private static final int POSITIONS = 19683; // 3^9 borden
+    private static final int[] POWERS_OF_3 = {1, 3, 9, 27, 81, 243, 729, 2187, 6561};
+    private static final int[][] WIN_LINES = {
+        {0,1,2}, {3,4,5}, {6,7,8}, // rijen
+        {0,3,6}, {1,4,7}, {2,5,8}, // kolommen
+        {0,4,8}, {2,4,6}           // diagonalen
+    };
+
+    // Waarde van een bord voor de AI, relatief aan dat bord: 10 - k bij winst na k zetten,
+    // k - 10 bij verlies, 0 bij gelijkspel. [0] = AI aan de beurt, [1] = tegenstander aan de beurt
+    private static final byte[][] VALUES = new byte[2][POSITIONS];
+    private static final boolean[][] KNOWN = new boolean[2][POSITIONS];
+    // Beste zet (0-8) als de AI aan de beurt is, of -1 als er geen vakje vrij is
+    private static final byte[] BEST_MOVES = new byte[POSITIONS];
+
+    static {
+        for (int index = 0; index < POSITIONS; index++) {
+            // Dezelfde keuze als AbstractMinimaxAI.bestMove: de eerste zet met de hoogste score
+            int best = Integer.MIN_VALUE;
+            int move = -1;
+            for (int i = 0; i < CELLS; i++) {
+                if (cell(index, i) == 0) {
+                    int score = value(index + POWERS_OF_3[i], 1);
+                    if (score > best) {
+                        best = score;
+                        move = i;
+                    }
+                }
+            }
+            BEST_MOVES[index] = (byte) move;
+        }
+    }
 
     /**
      * Bepaalt de beste zet voor de AI op basis van de huidige toestand van het spelbord
-     * Gebruikt de minimax algoritme uit het framework
+     * Zoekt de zet op in de tabel; geeft dezelfde zet als het minimax algoritme uit het framework
      * @param game Het huidige TicTacToe spel
      * @param aiPlayer Het symbool van de AI-speler ('X' of 'O')
      * @param humanPlayer Het symbool van de menselijke speler ('X' of 'O')
      * @return De index van de beste zet (0-8), of -1 als geen zet mogelijk is
      */
     public static int bestMove(TicTacToe game, char aiPlayer, char humanPlayer) {
-        return AbstractMinimaxAI.bestMove(game, aiPlayer, humanPlayer);
+        char[] board = game.getBord();
+        int index = 0;
+        for (int i = 0; i < CELLS; i++) {
+            if (board[i] == aiPlayer) {
+                index += POWERS_OF_3[i];
+            } else if (board[i] == humanPlayer) {
+                index += 2 * POWERS_OF_3[i];
+            }
+        }
+        return BEST_MOVES[index];
+    }
+
+    /**
+     * Berekent de relatieve waarde van een bord (met geheugen), volgens dezelfde regels als minimax:
+     * eerst winst voor de AI, dan winst voor de tegenstander, dan gelijkspel bij een vol bord
+     * @param index Het bordnummer
+     * @param side 0 als de AI aan de beurt is, 1 als de tegenstander aan de beurt is
+     * @return De waarde voor de AI
+     */
+    private static int value(int index, int side) {
+        if (KNOWN[side][index]) {
+            return VALUES[side][index];
+        }
+
+        int result;
+        if (hasLine(index, 1)) {
+            result = 10;
+        } else if (hasLine(index, 2)) {
+            result = -10;
+        } else {
+            result = side == 0 ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+            boolean full = true;
+            for (int i = 0; i < CELLS; i++) {
+                if (cell(index, i) == 0) {
+                    full = false;
+                    int child = value(index + (side == 0 ? 1 : 2) * POWERS_OF_3[i], 1 - side);
+                    // Een zet verder weg: winst wordt een punt minder waard, verlies een punt minder erg
+                    child = child > 0 ? child - 1 : child < 0 ? child + 1 : 0;
+                    result = side == 0 ? Math.max(result, child) : Math.min(result, child);
+                }
+            }
+            if (full) {
+                result = 0;
+            }
+        }
+
+        VALUES[side][index] = (byte) result;
+        KNOWN[side][index] = true;
+        return result;
+    }
+
+    private static int cell(int index, int i) {
+        return index / POWERS_OF_3[i] % 3;
+    }
+
+    private static boolean hasLine(int index, int owner) {
+        for (int[] line : WIN_LINES) {
+            if (cell(index, line[0]) == owner && cell(index, line[1]) == owner && cell(index, line[2]) == owner) {
+                return true;
+            }
+        }
+        return false;
     }
-}
\ No newline at end of file
+}
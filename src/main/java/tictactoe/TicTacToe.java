@@ -10,6 +10,12 @@ import framework.boardgame.Position;
  * Gebruikt het framework voor herbruikbare bordspel functionaliteit
  */
 public class TicTacToe extends AbstractBoardGame {
+    // Winnende posities: rijen, kolommen en diagonalen
+    private static final int[][] WIN_POSITIONS = {
+        {0,1,2}, {3,4,5}, {6,7,8}, // rijen
+        {0,3,6}, {1,4,7}, {2,5,8}, // kolommen
+        {0,4,8}, {2,4,6}           // diagonalen
+    };
 
     /**
      * Constructor - initialiseert een nieuw leeg 3x3 spelbord
@@ -45,13 +51,7 @@ public class TicTacToe extends AbstractBoardGame {
      */
     @Override
     public boolean isWin(char player) {
-        // Winnende posities: rijen, kolommen en diagonalen
-        int[][] winPositions = {
-            {0,1,2}, {3,4,5}, {6,7,8}, // rijen
-            {0,3,6}, {1,4,7}, {2,5,8}, // kolommen
-            {0,4,8}, {2,4,6}           // diagonalen
-        };
-        for (int[] w : winPositions) {
+        for (int[] w : WIN_POSITIONS) {
             if (board[w[0]] == player && board[w[1]] == player && board[w[2]] == player) {
                 return true;
             }
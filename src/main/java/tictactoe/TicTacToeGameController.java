@@ -2,9 +2,18 @@ package tictactoe;
 
 import framework.boardgame.Move;
 import framework.boardgame.Position;
+import framework.boardgame.BoardSnapshot;
+import framework.boardgame.GameClock;
+import framework.boardgame.GameRecord;
+import framework.boardgame.GameRecordWriter;
 import framework.boardgame.GameResult;
+import framework.ai.TimeManager;
+import framework.controllers.AIExecutor;
 import framework.players.AbstractPlayer;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * TicTacToe Game Controller - Backend game logic only
  * Handelt alle spelregels en zetten af, volledig losgekoppeld van UI
@@ -18,6 +27,14 @@ public class TicTacToeGameController {
     private boolean isPlayer1Turn = true;
     private GameListener gameListener;
     private volatile boolean aiThinking = false;
+    private final GameRecord record;
+    private GameRecordWriter recordWriter;
+    private AIExecutor aiExecutor = AIExecutor.getInstance();
+    private long aiTimeout = 0;                       // Deadline per AI zet in ms (0 = geen)
+    private CompletableFuture<Integer> pendingAIMove;
+    private int aiSearchId = 0;                       // Verhoogd bij elke zoekopdracht; oude uitkomsten worden genegeerd
+    private GameClock clock;                          // null = geen tijdcontrole
+    private final TimeManager timeManager = new TimeManager(5);
 
     /**
      * Listener interface voor UI updates
@@ -34,22 +51,79 @@ public class TicTacToeGameController {
         this.player1 = player1;
         this.player2 = player2;
         this.currentPlayer = player1;
+        this.record = new GameRecord(GameRecord.TICTACTOE, game.getBoardWidth(), game.getBoardHeight(),
+                player1.getName(), player1.getSymbol(), player2.getName(), player2.getSymbol());
     }
 
     public void setGameListener(GameListener listener) {
         this.gameListener = listener;
     }
 
+    /**
+     * Stel een archief in waar het spel aan het eind aan wordt toegevoegd (null = niet opslaan)
+     */
+    public void setGameRecordWriter(GameRecordWriter writer) {
+        this.recordWriter = writer;
+    }
+
+    /**
+     * Stel de executor in waarop de AI zoekt (standaard op de achtergrond met aflevering op de EDT)
+     */
+    public void setAIExecutor(AIExecutor executor) {
+        this.aiExecutor = executor;
+    }
+
+    /**
+     * Stel een deadline per AI zet in; als de AI niet op tijd is wordt een vrij vakje gespeeld
+     * @param millis De deadline in milliseconden (0 = geen deadline)
+     */
+    public void setAITimeout(long millis) {
+        this.aiTimeout = Math.max(0, millis);
+    }
+
+    /**
+     * Stel een klok in (basistijd plus increment per speler); de klok van de speler die aan zet is start meteen
+     * @param clock De klok, of null voor geen tijdcontrole
+     */
+    public void setClock(GameClock clock) {
+        this.clock = clock;
+        if (clock != null && !gameDone) {
+            clock.start(currentPlayer.getSymbol());
+        }
+    }
+
+    /**
+     * Controleer of de speler die aan zet is door de tijd is gegaan; zo ja, dan wint de tegenstander
+     * @return true als het spel daardoor afgelopen is
+     */
+    public boolean checkClock() {
+        if (gameDone || clock == null || !clock.isFlagged(currentPlayer.getSymbol())) {
+            return false;
+        }
+        cancelAIMove();
+        gameDone = true;
+        AbstractPlayer winner = currentPlayer == player1 ? player2 : player1;
+        finishRecord(winner == player1 ? GameRecord.FIRST_WINS : GameRecord.SECOND_WINS);
+        if (gameListener != null) {
+            gameListener.onGameEnded(GameResult.createWin(winner));
+        }
+        return true;
+    }
+
     /**
      * Voer een zet uit op basis van index (0-8)
      */
     public boolean makeMove(int index) {
-        if (gameDone || aiThinking || !game.isFree(index)) {
+        if (gameDone || aiThinking || checkClock() || !game.isFree(index)) {
             return false;
         }
 
         Move move = new Move(index, currentPlayer.getSymbol(), game.getBoardWidth());
         game.doMove(move);
+        record.addMove(index);
+        if (clock != null) {
+            clock.press(move.getPlayer());
+        }
 
         if (gameListener != null) {
             gameListener.onMoveExecuted(move);
@@ -73,12 +147,14 @@ public class TicTacToeGameController {
      * Voer een zet uit op basis van rij en kolom
      */
     public boolean makeMove(int row, int col) {
-        Position pos = new Position(row, col, game.getBoardWidth());
+        Position pos = Position.of(row, col, game.getBoardWidth());
         return makeMove(pos.getIndex());
     }
 
     /**
      * Maak een AI zet
+     * De AI zoekt op de achtergrond in een kopie van het spel; de zet wordt daarna op de afleverthread
+     * (de EDT) uitgevoerd
      */
     public void makeAIMove() {
         if (aiThinking || !currentPlayer.isAI() || gameDone) {
@@ -90,19 +166,89 @@ public class TicTacToeGameController {
             gameListener.onAIThinking(true);
         }
 
-        char opponent = (currentPlayer.getSymbol() == 'X') ? 'O' : 'X';
-        int bestMoveIndex = MinimaxAI.bestMove(game, currentPlayer.getSymbol(), opponent);
+        BoardSnapshot position = game.snapshot();
+        char player = currentPlayer.getSymbol();
+        char opponent = (player == 'X') ? 'O' : 'X';
+        int searchId = ++aiSearchId;
+
+        // Met een klok: minimax heeft geen budget nodig, maar de deadline zorgt dat de klok nooit valt
+        long timeout = aiTimeout;
+        if (clock != null) {
+            long budget = timeManager.allocate(clock, player, game);
+            long hardLimit = timeManager.hardLimit(clock.getRemaining(player), budget);
+            timeout = timeout > 0 ? Math.min(timeout, hardLimit) : hardLimit;
+        }
+        pendingAIMove = aiExecutor.submit(() -> {
+            TicTacToe searchGame = new TicTacToe();
+            searchGame.restore(position);
+            return MinimaxAI.bestMove(searchGame, player, opponent);
+        }, timeout, (bestMoveIndex, error) -> onAIMoveFound(searchId, bestMoveIndex, error));
+    }
 
+    /**
+     * Verwerkt de uitkomst van de AI (op de afleverthread)
+     * Bij een fout of verlopen deadline wordt het eerste vrije vakje gespeeld
+     */
+    private void onAIMoveFound(int searchId, Integer bestMoveIndex, Throwable error) {
+        if (searchId != aiSearchId || gameDone) {
+            return; // Geannuleerd of achterhaald
+        }
+        pendingAIMove = null;
         aiThinking = false;
         if (gameListener != null) {
             gameListener.onAIThinking(false);
         }
 
+        if (error != null) {
+            List<Integer> moves = game.getAvailableMoves();
+            bestMoveIndex = moves.isEmpty() ? -1 : moves.get(0);
+        }
         if (bestMoveIndex != -1) {
             makeMove(bestMoveIndex);
         }
     }
 
+    /**
+     * Stopt een lopende AI zoekopdracht, bijvoorbeeld bij terug naar het menu
+     */
+    public void cancelAIMove() {
+        aiSearchId++;
+        if (pendingAIMove != null) {
+            pendingAIMove.cancel(true);
+            pendingAIMove = null;
+        }
+        aiThinking = false;
+    }
+
+    /**
+     * Neem de laatste zet terug, en ook de zet van de AI ervoor zodat weer een mens aan de beurt is
+     * @return true als er een zet teruggenomen is
+     */
+    public boolean takeback() {
+        if (gameDone || aiThinking || !game.canUndo()) {
+            return false;
+        }
+        do {
+            char player = game.getLastMovePlayer();
+            game.undo();
+            record.removeLastMove();
+            currentPlayer = player == player1.getSymbol() ? player1 : player2;
+            isPlayer1Turn = currentPlayer == player1;
+        } while (currentPlayer.isAI() && game.canUndo());
+        if (clock != null) {
+            clock.start(currentPlayer.getSymbol());
+        }
+
+        if (gameListener != null) {
+            gameListener.onMoveExecuted(null);
+        }
+        notifyStatusChanged();
+        if (currentPlayer.isAI()) {
+            makeAIMove(); // Alleen als de AI het spel begon en er niets meer terug te nemen is
+        }
+        return true;
+    }
+
     /**
      * Controleer of het spel voorbij is
      */
@@ -111,6 +257,7 @@ public class TicTacToeGameController {
 
         if (game.isWin(lastPlayerSymbol)) {
             gameDone = true;
+            finishRecord(currentPlayer == player1 ? GameRecord.FIRST_WINS : GameRecord.SECOND_WINS);
             if (gameListener != null) {
                 gameListener.onGameEnded(GameResult.createWin(currentPlayer));
             }
@@ -119,6 +266,7 @@ public class TicTacToeGameController {
 
         if (game.isDraw()) {
             gameDone = true;
+            finishRecord(GameRecord.DRAW);
             if (gameListener != null) {
                 gameListener.onGameEnded(GameResult.createDraw());
             }
@@ -128,6 +276,19 @@ public class TicTacToeGameController {
         return false;
     }
 
+    /**
+     * Sluit het spelverslag af en voeg het toe aan het archief
+     */
+    private void finishRecord(int result) {
+        if (clock != null) {
+            clock.stop();
+        }
+        record.finish(result);
+        if (recordWriter != null) {
+            recordWriter.append(record);
+        }
+    }
+
     /**
      * Wissel van speler
      */
@@ -149,7 +310,10 @@ public class TicTacToeGameController {
     public AbstractPlayer getPlayer2() { return player2; }
     public boolean isGameDone() { return gameDone; }
     public char[] getBoardState() { return game.getBord(); }
+    public BoardSnapshot getSnapshot() { return game.snapshot(); }
     public boolean isAIThinking() { return aiThinking; }
+    public GameRecord getGameRecord() { return record; }
+    public GameClock getClock() { return clock; }
 
 
 }
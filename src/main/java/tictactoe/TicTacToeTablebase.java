@@ -0,0 +1,348 @@
+package tictactoe;
+
+import framework.boardgame.BoardSymmetry;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+/**
+ * Volledig opgeloste tabel (tablebase) voor TicTacToe op een 4x4 bord, met 3 of 4 op een rij
+ *
+ * Een bord wordt genummerd in base 3 (vakje i telt mee als cel * 3^i, met 0 = leeg,
+ * 1 = beginnende speler, 2 = tweede speler): 3^16 = 43.046.721 borden. Per bord worden 2 bits
+ * opgeslagen (onbekend, verlies, gelijkspel of winst voor de speler aan zet), in een bestand
+ * van ongeveer 10,8 MB dat met memory mapping wordt ingelezen.
+ *
+ * De tabel wordt terugwerkend (retrograde) berekend: eerst alle volle borden, dan laag voor laag
+ * de borden met één steen minder, want elke zet voegt precies één steen toe. Binnen een laag zijn
+ * de borden onafhankelijk en worden ze over alle cores verdeeld.
+ * Van de 8 spiegelingen en draaiingen van een bord wordt alleen de kleinste (canonieke) berekend
+ * en opgeslagen; bij het opzoeken wordt een bord eerst naar die vorm omgezet.
+ * Zo blijft het opzoeken een directe index in het bestand en kost het constante tijd.
+ */
+public class TicTacToeTablebase {
+    public static final int UNKNOWN = 0;
+    public static final int LOSS = 1;
+    public static final int DRAW = 2;
+    public static final int WIN = 3;
+
+    private static final int SIDE = 4;
+    private static final int CELLS = SIDE * SIDE;
+    private static final int STATES = 43046721; // 3^16
+    private static final int FILE_BYTES = (STATES + 3) / 4;
+
+    // Base 3 waarde van de onderste en bovenste 8 bits van een bitmasker
+    private static final int[] BASE3_LOW = new int[256];
+    private static final int[] BASE3_HIGH = new int[256];
+    // Per transformatie uit BoardSymmetry: het beeld van de onderste en bovenste 8 bits van een bitmasker
+    private static final int[][] SYMMETRY_LOW = new int[BoardSymmetry.TRANSFORMS][256];
+    private static final int[][] SYMMETRY_HIGH = new int[BoardSymmetry.TRANSFORMS][256];
+
+    static {
+        for (int bits = 0; bits < 256; bits++) {
+            int low = 0;
+            int high = 0;
+            int power = 1;
+            for (int i = 0; i < 8; i++) {
+                if ((bits & (1 << i)) != 0) {
+                    low += power;
+                    high += power * 6561; // 3^8
+                }
+                power *= 3;
+            }
+            BASE3_LOW[bits] = low;
+            BASE3_HIGH[bits] = high;
+        }
+        for (int t = 0; t < BoardSymmetry.TRANSFORMS; t++) {
+            for (int bits = 0; bits < 256; bits++) {
+                for (int i = 0; i < 8; i++) {
+                    if ((bits & (1 << i)) != 0) {
+                        SYMMETRY_LOW[t][bits] |= 1 << BoardSymmetry.transformCell(i, t, SIDE);
+                        SYMMETRY_HIGH[t][bits] |= 1 << BoardSymmetry.transformCell(i + 8, t, SIDE);
+                    }
+                }
+            }
+        }
+    }
+
+    private final int k;
+    private final int[] lines;              // Bitmaskers van alle lijnen van k vakjes
+    private final MappedByteBuffer table;
+
+    private TicTacToeTablebase(int k, MappedByteBuffer table) {
+        this.k = k;
+        this.lines = lineMasks(k);
+        this.table = table;
+    }
+
+    /**
+     * Laadt de tablebase uit een map, en berekent en bewaart hem eerst als het bestand er nog niet is
+     * @param directory De map voor het tablebase bestand
+     * @param k Het aantal op een rij om te winnen (3 of 4)
+     * @return De tablebase, of null als het bestand niet gemaakt of gelezen kon worden
+     */
+    public static TicTacToeTablebase load(Path directory, int k) {
+        k = Math.max(3, Math.min(SIDE, k));
+        Path file = directory.resolve("tictactoe-4x4-k" + k + ".tb");
+        TicTacToeTablebase tablebase = open(file, k);
+        if (tablebase == null && generate(file, k)) {
+            tablebase = open(file, k);
+        }
+        return tablebase;
+    }
+
+    /**
+     * Opent een bestaand tablebase bestand (alleen lezen)
+     * @return De tablebase, of null als het bestand ontbreekt of niet de juiste grootte heeft
+     */
+    public static TicTacToeTablebase open(Path file, int k) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() != FILE_BYTES) {
+                return null;
+            }
+            // De mapping blijft geldig nadat het kanaal gesloten is
+            return new TicTacToeTablebase(k, channel.map(FileChannel.MapMode.READ_ONLY, 0, FILE_BYTES));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Berekent de volledige tablebase en schrijft hem naar een bestand
+     * @param file Het bestand om te schrijven
+     * @param k Het aantal op een rij om te winnen
+     * @return true als het bestand geschreven is
+     */
+    public static boolean generate(Path file, int k) {
+        byte[] values = solve(lineMasks(k));
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_BYTES);
+                for (int i = 0; i < FILE_BYTES; i++) {
+                    int packed = 0;
+                    for (int j = 0; j < 4 && 4 * i + j < STATES; j++) {
+                        packed |= values[4 * i + j] << (2 * j);
+                    }
+                    out.put(i, (byte) packed);
+                }
+                out.force();
+            }
+            // Pas na het volledig schrijven wordt het bestand onder de echte naam gezet
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Lost alle canonieke borden op, laag voor laag van vol naar leeg
+     * @return Per bordnummer de waarde voor de speler aan zet (alleen voor canonieke borden)
+     */
+    private static byte[] solve(int[] lines) {
+        byte[] values = new byte[STATES];
+        for (int stones = CELLS; stones >= 0; stones--) {
+            int firstCount = (stones + 1) / 2;
+            int secondCount = stones / 2;
+            IntStream.range(0, 1 << CELLS).parallel()
+                    .filter(first -> Integer.bitCount(first) == firstCount)
+                    .forEach(first -> {
+                        int free = ~first & 0xFFFF;
+                        // Alle deelverzamelingen van de vrije vakjes met het juiste aantal stenen
+                        for (int second = free; ; second = (second - 1) & free) {
+                            if (Integer.bitCount(second) == secondCount
+                                    && canonical(first, second) == key(first, second)) {
+                                values[index(first, second)] = (byte) solvePosition(first, second, lines, values);
+                            }
+                            if (second == 0) {
+                                break;
+                            }
+                        }
+                    });
+        }
+        return values;
+    }
+
+    /**
+     * Berekent de waarde van één bord uit de waarden van de borden met één steen meer
+     */
+    private static int solvePosition(int first, int second, int[] lines, byte[] values) {
+        boolean firstToMove = Integer.bitCount(first) == Integer.bitCount(second);
+        int mover = firstToMove ? first : second;
+        int other = firstToMove ? second : first;
+        if (hasLine(other, lines)) {
+            return LOSS;
+        }
+        if (hasLine(mover, lines)) {
+            return WIN; // Komt in een echt spel niet voor
+        }
+        int free = ~(first | second) & 0xFFFF;
+        if (free == 0) {
+            return DRAW;
+        }
+        int best = LOSS;
+        for (int moves = free; moves != 0; moves &= moves - 1) {
+            int move = moves & -moves;
+            int key = firstToMove ? canonical(first | move, second) : canonical(first, second | move);
+            int result = WIN + LOSS - values[index(key >>> 16, key & 0xFFFF)];
+            if (result > best) {
+                best = result;
+                if (best == WIN) {
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Zoekt de waarde van een bord op
+     * @param game Een 4x4 spel
+     * @param player De speler aan zet ('X' of 'O')
+     * @return WIN, DRAW of LOSS voor de speler aan zet, of UNKNOWN als het bord niet kan voorkomen
+     */
+    public int getValue(MNKGame game, char player) {
+        int[] masks = masks(game, player);
+        if (masks == null) {
+            return UNKNOWN;
+        }
+        return lookup(masks[0], masks[1]);
+    }
+
+    /**
+     * Bepaalt de beste zet in constante tijd: een zet naar een bord dat voor de tegenstander
+     * verloren is, anders naar gelijkspel; een directe winst gaat voor
+     * @param game Een 4x4 spel
+     * @param player De speler aan zet ('X' of 'O')
+     * @return De index van de beste zet (0-15), of -1 als geen zet mogelijk is
+     */
+    public int bestMove(MNKGame game, char player) {
+        int[] masks = masks(game, player);
+        if (masks == null || game.isGameOver()) {
+            return -1;
+        }
+        int first = masks[0];
+        int second = masks[1];
+        boolean firstToMove = Integer.bitCount(first) == Integer.bitCount(second);
+        int best = -1;
+        int bestResult = UNKNOWN;
+        for (int pos = 0; pos < CELLS; pos++) {
+            int move = 1 << pos;
+            if (((first | second) & move) != 0) {
+                continue;
+            }
+            int nextFirst = firstToMove ? first | move : first;
+            int nextSecond = firstToMove ? second : second | move;
+            if (hasLine(firstToMove ? nextFirst : nextSecond, lines)) {
+                return pos;
+            }
+            int result = WIN + LOSS - lookup(nextFirst, nextSecond);
+            if (result > bestResult) {
+                bestResult = result;
+                best = pos;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Zet een spel om naar de bitmaskers van de beginnende en de tweede speler
+     * @return {beginnende speler, tweede speler}, of null als het bord niet past
+     */
+    private int[] masks(MNKGame game, char player) {
+        if (game.getBoardWidth() != SIDE || game.getBoardHeight() != SIDE || game.getK() != k) {
+            return null;
+        }
+        char[] board = game.getBord();
+        int own = 0;
+        int opponent = 0;
+        for (int pos = 0; pos < CELLS; pos++) {
+            if (board[pos] == player) {
+                own |= 1 << pos;
+            } else if (board[pos] != ' ') {
+                opponent |= 1 << pos;
+            }
+        }
+        // Bij een gelijk aantal stenen is de speler aan zet de beginnende speler
+        int ownCount = Integer.bitCount(own);
+        int opponentCount = Integer.bitCount(opponent);
+        if (ownCount == opponentCount) {
+            return new int[] {own, opponent};
+        }
+        if (ownCount + 1 == opponentCount) {
+            return new int[] {opponent, own};
+        }
+        return null;
+    }
+
+    private int lookup(int first, int second) {
+        int key = canonical(first, second);
+        int index = index(key >>> 16, key & 0xFFFF);
+        return (table.get(index >>> 2) >>> ((index & 3) * 2)) & 3;
+    }
+
+    private static int index(int first, int second) {
+        return BASE3_LOW[first & 0xFF] + BASE3_HIGH[first >>> 8]
+                + 2 * (BASE3_LOW[second & 0xFF] + BASE3_HIGH[second >>> 8]);
+    }
+
+    private static int key(int first, int second) {
+        return first << 16 | second;
+    }
+
+    /**
+     * Krijg de kleinste sleutel van een bord over alle 8 spiegelingen en draaiingen
+     */
+    private static int canonical(int first, int second) {
+        int best = Integer.MAX_VALUE;
+        for (int t = 0; t < BoardSymmetry.TRANSFORMS; t++) {
+            int key = key(SYMMETRY_LOW[t][first & 0xFF] | SYMMETRY_HIGH[t][first >>> 8],
+                    SYMMETRY_LOW[t][second & 0xFF] | SYMMETRY_HIGH[t][second >>> 8]);
+            if (key < best) {
+                best = key;
+            }
+        }
+        return best;
+    }
+
+    private static boolean hasLine(int stones, int[] lines) {
+        for (int line : lines) {
+            if ((stones & line) == line) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Maakt de bitmaskers van alle lijnen uit de lijnstukken van een 4x4 m,n,k-spel
+     */
+    private static int[] lineMasks(int k) {
+        MNKGame game = new MNKGame(SIDE, SIDE, k);
+        int[] masks = new int[game.getWindowCount()];
+        for (int w = 0; w < masks.length; w++) {
+            for (int cell : game.getWindow(w)) {
+                masks[w] |= 1 << cell;
+            }
+        }
+        return masks;
+    }
+
+    /**
+     * Krijg het aantal op een rij dat nodig is om te winnen
+     */
+    public int getK() {
+        return k;
+    }
+}
@@ -0,0 +1,146 @@
+package reversi;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.SplittableRandom;
+
+/**
+ * Experimental engine that advances one game per vector lane in lockstep.
+ * Move generation and flipping run on {@link LongVector} lanes; only the random move choice
+ * is done per lane. Games that are finished keep passing until every lane is done.
+ * Needs the incubator module: {@code --add-modules jdk.incubator.vector} when compiling and running.
+ * Lives in its own source root (src/vector/java) so the rest of the game compiles without the module,
+ * and is only loaded through {@link PlayoutEngine#create()}, so the rest of the game runs without it.
+ */
+final class VectorPlayoutEngine implements PlayoutEngine {
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+
+    private static final long NOT_COLUMN_0 = 0xFEFEFEFEFEFEFEFEL;
+    private static final long NOT_COLUMN_7 = 0x7F7F7F7F7F7F7F7FL;
+    // Same direction table as ReversiBitboard (positive = towards higher indices)
+    private static final int[] SHIFTS = {1, -1, 8, -8, 9, 7, -7, -9};
+    private static final long[] SHIFT_MASKS = {
+        NOT_COLUMN_0, NOT_COLUMN_7, -1L, -1L, NOT_COLUMN_0, NOT_COLUMN_7, NOT_COLUMN_0, NOT_COLUMN_7
+    };
+
+    // Lane state, reused between calls
+    private final long[] own = new long[LANES];
+    private final long[] opp = new long[LANES];
+    private final long[] moves = new long[LANES];
+    private final boolean[] blackMoves = new boolean[LANES];
+    private final int[] passCount = new int[LANES];
+
+    @Override
+    public void playout(long[] black, long[] white, boolean[] blackToMove, int count, SplittableRandom random) {
+        for (int start = 0; start < count; start += LANES) {
+            int lanes = Math.min(LANES, count - start);
+            for (int lane = 0; lane < LANES; lane++) {
+                // Unused lanes hold an empty board, which has no moves and is finished at once
+                boolean used = lane < lanes;
+                blackMoves[lane] = used && blackToMove[start + lane];
+                own[lane] = !used ? 0L : blackMoves[lane] ? black[start + lane] : white[start + lane];
+                opp[lane] = !used ? 0L : blackMoves[lane] ? white[start + lane] : black[start + lane];
+                passCount[lane] = 0;
+            }
+            playLanes(random);
+            for (int lane = 0; lane < lanes; lane++) {
+                black[start + lane] = blackMoves[lane] ? own[lane] : opp[lane];
+                white[start + lane] = blackMoves[lane] ? opp[lane] : own[lane];
+            }
+        }
+    }
+
+    /**
+     * Plays all lanes to the end
+     */
+    private void playLanes(SplittableRandom random) {
+        LongVector ownVector = LongVector.fromArray(SPECIES, own, 0);
+        LongVector oppVector = LongVector.fromArray(SPECIES, opp, 0);
+        while (true) {
+            legalMoves(ownVector, oppVector).intoArray(moves, 0);
+
+            // Pick one move per lane; a lane without moves passes (move 0 changes nothing)
+            boolean running = false;
+            for (int lane = 0; lane < LANES; lane++) {
+                long laneMoves = moves[lane];
+                if (laneMoves == 0) {
+                    passCount[lane]++;
+                } else {
+                    passCount[lane] = 0;
+                    int skip = random.nextInt(Long.bitCount(laneMoves));
+                    for (int i = 0; i < skip; i++) {
+                        laneMoves &= laneMoves - 1;
+                    }
+                    moves[lane] = Long.lowestOneBit(laneMoves);
+                }
+                running |= passCount[lane] < 2;
+            }
+            if (!running) {
+                break;
+            }
+
+            LongVector move = LongVector.fromArray(SPECIES, moves, 0);
+            LongVector flipped = flips(ownVector, oppVector, move);
+            LongVector newOwn = ownVector.or(flipped).or(move);
+            LongVector newOpp = oppVector.and(flipped.not());
+            // The other player is to move in every lane
+            ownVector = newOpp;
+            oppVector = newOwn;
+            for (int lane = 0; lane < LANES; lane++) {
+                blackMoves[lane] = !blackMoves[lane];
+            }
+        }
+        ownVector.intoArray(own, 0);
+        oppVector.intoArray(opp, 0);
+    }
+
+    private static LongVector shift(LongVector bits, int direction) {
+        int s = SHIFTS[direction];
+        LongVector shifted = s > 0
+                ? bits.lanewise(VectorOperators.LSHL, s)
+                : bits.lanewise(VectorOperators.LSHR, -s);
+        return SHIFT_MASKS[direction] == -1L ? shifted : shifted.and(SHIFT_MASKS[direction]);
+    }
+
+    /**
+     * Lane-wise version of {@link ReversiBitboard#legalMoves(long, long)}
+     */
+    private static LongVector legalMoves(LongVector own, LongVector opp) {
+        LongVector empty = own.or(opp).not();
+        LongVector result = LongVector.zero(SPECIES);
+        for (int dir = 0; dir < 8; dir++) {
+            LongVector x = shift(own, dir).and(opp);
+            for (int i = 0; i < 5; i++) {
+                x = x.or(shift(x, dir).and(opp));
+            }
+            result = result.or(shift(x, dir).and(empty));
+        }
+        return result;
+    }
+
+    /**
+     * Lane-wise version of {@link ReversiBitboard#flips(long, long, int)} for one move bit per lane
+     */
+    private static LongVector flips(LongVector own, LongVector opp, LongVector move) {
+        LongVector result = LongVector.zero(SPECIES);
+        for (int dir = 0; dir < 8; dir++) {
+            LongVector x = shift(move, dir).and(opp);
+            for (int i = 0; i < 5; i++) {
+                x = x.or(shift(x, dir).and(opp));
+            }
+            // The run of opponent discs is flipped when an own disc closes it
+            VectorMask<Long> closed = shift(x, dir).and(own).compare(VectorOperators.NE, 0L);
+            result = result.or(x.blend(0L, closed.not()));
+        }
+        return result;
+    }
+
+    @Override
+    public String getName() {
+        return "vector (" + LANES + " lanes)";
+    }
+}